@@ -0,0 +1,26 @@
+package com.github.freenamu.backend.benchmark;
+
+import java.util.Random;
+
+public class BenchmarkUtil {
+    private static final String[] WORDS = {
+            "[[", "]]", "{{", "}}", "'''", "==", "*", "||", "\n",
+            "the", "wiki", "document", "revision", "namu", "free", "edit", "history",
+            "나무", "문서", "편집", "역사", "위키", "자유", "개요", "틀", "분류", "각주"
+    };
+
+    public static String getWikiText(Random random, int length) {
+        StringBuilder result = new StringBuilder(length + 16);
+        while (result.length() < length) {
+            result.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+        }
+        result.setLength(length);
+        return result.toString();
+    }
+
+    public static String edit(Random random, String contentBody) {
+        int position = random.nextInt(contentBody.length() + 1);
+        int removed = Math.min(random.nextInt(32), contentBody.length() - position);
+        return contentBody.substring(0, position) + getWikiText(random, random.nextInt(64)) + contentBody.substring(position + removed);
+    }
+}
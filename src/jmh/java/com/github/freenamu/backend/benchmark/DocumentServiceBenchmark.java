@@ -0,0 +1,101 @@
+package com.github.freenamu.backend.benchmark;
+
+import com.github.freenamu.backend.BackendApplication;
+import com.github.freenamu.backend.entity.Content;
+import com.github.freenamu.backend.service.DocumentService;
+import com.github.freenamu.backend.vo.History;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures DocumentService against an embedded in-memory H2 database holding one document whose shape is given by
+ * {@code workload} as {@code revisionCount:bodySize}. The latest-revision cache is disabled so reads hit the database.
+ * {@code postDocument} alternates between two bodies so that every call saves a new revision rather than being
+ * skipped as an unchanged edit.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class DocumentServiceBenchmark {
+    private static final String DOCUMENT_NAME = "benchmark";
+
+    @Param({"1:1024", "100:1024", "10000:1024", "100000:1024", "1:102400", "100:102400", "1:5242880", "20:5242880"})
+    private String workload;
+
+    @Param({"1"})
+    private int keyframeInterval;
+
+    @Param({"deflate"})
+    private String codec;
+
+    private ConfigurableApplicationContext context;
+    private DocumentService documentService;
+    private int revisionCount;
+    private String contentBody;
+    private String[] postedBodies;
+    private int postCount;
+
+    @Setup
+    public void setUp() {
+        String[] shape = workload.split(":");
+        revisionCount = Integer.parseInt(shape[0]);
+        int bodySize = Integer.parseInt(shape[1]);
+        context = new SpringApplicationBuilder(BackendApplication.class)
+                .web(WebApplicationType.NONE)
+                // Given as arguments, since default properties would lose to application.properties
+                .run("--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.hibernate.ddl-auto=create",
+                        "--logging.level.root=WARN",
+                        "--freenamu.cache.latest.max-entries=0",
+                        "--freenamu.revision.keyframe-interval=" + keyframeInterval,
+                        "--freenamu.revision.codec=" + codec);
+        documentService = context.getBean(DocumentService.class);
+
+        Random random = new Random(0);
+        contentBody = BenchmarkUtil.getWikiText(random, bodySize);
+        for (int i = 0; i < revisionCount; i++) {
+            contentBody = BenchmarkUtil.edit(random, contentBody);
+            documentService.postDocument(DOCUMENT_NAME, contentBody, "benchmark", "127.0.0.1");
+        }
+        postedBodies = new String[]{BenchmarkUtil.edit(random, contentBody), contentBody};
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void postDocument() {
+        documentService.postDocument(DOCUMENT_NAME, postedBodies[postCount++ & 1], "benchmark", "127.0.0.1");
+    }
+
+    @Benchmark
+    public Content getLatestDocument() {
+        return documentService.getLatestDocument(DOCUMENT_NAME);
+    }
+
+    @Benchmark
+    public Content getDocumentByRevisionIndex() {
+        return documentService.getDocumentByRevisionIndex(DOCUMENT_NAME, ThreadLocalRandom.current().nextInt(revisionCount) + 1);
+    }
+
+    @Benchmark
+    public History getHistoryOfDocument() {
+        return documentService.getHistoryOfDocument(DOCUMENT_NAME);
+    }
+
+    @Benchmark
+    public History getHistoryPageOfDocument() {
+        return documentService.getHistoryOfDocument(DOCUMENT_NAME, null, 100);
+    }
+}
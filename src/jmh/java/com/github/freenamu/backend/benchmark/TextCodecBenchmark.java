@@ -0,0 +1,48 @@
+package com.github.freenamu.backend.benchmark;
+
+import com.github.freenamu.backend.util.CompressedText;
+import com.github.freenamu.backend.util.TextCodec;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TextCodecBenchmark {
+    private static final Logger logger = LoggerFactory.getLogger(TextCodecBenchmark.class);
+    @Param({"NONE", "DEFLATE", "GZIP"})
+    private TextCodec codec;
+
+    @Param({"4096", "65536", "1048576"})
+    private int bodySize;
+
+    private String contentBody;
+    private CompressedText compressedText;
+
+    @Setup
+    public void setUp() {
+        contentBody = BenchmarkUtil.getWikiText(new Random(0), bodySize);
+        compressedText = CompressedText.encode(contentBody, codec);
+        int rawSize = contentBody.getBytes(StandardCharsets.UTF_8).length;
+        logger.info("{}, {} chars: {} bytes -> {} bytes, ratio {}", codec, bodySize, rawSize, compressedText.getBytes().length,
+                String.format("%.2f", (double) rawSize / compressedText.getBytes().length));
+    }
+
+    @Benchmark
+    public CompressedText encode() {
+        return CompressedText.encode(contentBody, codec);
+    }
+
+    @Benchmark
+    public String decode() {
+        return compressedText.decode();
+    }
+}
@@ -0,0 +1,61 @@
+package com.github.freenamu.backend.benchmark;
+
+import com.github.freenamu.backend.util.TextDelta;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TextDeltaBenchmark {
+    private static final Logger logger = LoggerFactory.getLogger(TextDeltaBenchmark.class);
+    private static final int REVISION_COUNT = 1000;
+
+    @Param({"1048576"})
+    private int bodySize;
+
+    @Param({"1", "10", "50", "100"})
+    private int keyframeInterval;
+
+    private String keyframe;
+    private List<String> deltas;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(0);
+        String contentBody = BenchmarkUtil.getWikiText(random, bodySize);
+        deltas = new ArrayList<>();
+        long storedChars = 0;
+        for (int i = 0; i < REVISION_COUNT; i++) {
+            String next = BenchmarkUtil.edit(random, contentBody);
+            String payload = i % keyframeInterval == 0 ? next : TextDelta.encode(contentBody, next);
+            if (i == 0) {
+                keyframe = payload;
+            } else if (i < keyframeInterval) {
+                deltas.add(payload);
+            }
+            storedChars += payload.length();
+            contentBody = next;
+        }
+        logger.info("{} revisions, keyframe interval {}: {} chars stored, {}% of full bodies", REVISION_COUNT, keyframeInterval, storedChars,
+                String.format("%.1f", 100.0 * storedChars / ((long) REVISION_COUNT * bodySize)));
+    }
+
+    @Benchmark
+    public String reconstructDeepestRevision() {
+        String contentBody = keyframe;
+        for (String delta : deltas) {
+            contentBody = TextDelta.apply(contentBody, delta);
+        }
+        return contentBody;
+    }
+}
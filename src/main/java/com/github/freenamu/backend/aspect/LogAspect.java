@@ -6,52 +6,86 @@ import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
 import org.aspectj.lang.reflect.CodeSignature;
-import org.aspectj.lang.reflect.MethodSignature;
-import org.json.JSONException;
-import org.json.JSONObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
-import org.springframework.util.StopWatch;
 
-import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
 @Aspect
 @Component
 public class LogAspect {
+    @Value("${freenamu.log.request.sample-rate:1.0}")
+    private double sampleRate;
+
+    @Value("${freenamu.log.request.max-value-length:100}")
+    private int maxValueLength;
+
     @Pointcut("within(com.github.freenamu.backend.controller..*)")
     public void onRequest() {
     }
 
     @Around("onRequest()")
     public Object logMethodParametersAndTime(ProceedingJoinPoint joinPoint) throws Throwable {
-        Class<?> aClass = joinPoint.getTarget().getClass();
-        Logger logger = LoggerFactory.getLogger(aClass);
-        StopWatch stopWatch = new StopWatch();
-        stopWatch.start();
+        Logger logger = LoggerFactory.getLogger(joinPoint.getSignature().getDeclaringType());
+        if (!logger.isInfoEnabled() || (sampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= sampleRate)) {
+            return joinPoint.proceed();
+        }
+        long start = System.nanoTime();
 
         try {
             return joinPoint.proceed();
         } finally {
-            stopWatch.stop();
-            logger.info(getMethodName(joinPoint) + getParameters(joinPoint) + " " + stopWatch.getTotalTimeMillis() + "ms");
+            long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            logger.info("{}{} {}ms", joinPoint.getSignature().getName(), getParameters(joinPoint), elapsed);
         }
     }
 
-    private String getMethodName(JoinPoint joinPoint) {
-        MethodSignature methodSignature = (MethodSignature) joinPoint.getSignature();
-        Method method = methodSignature.getMethod();
-        return method.getName();
-    }
-
-    private JSONObject getParameters(JoinPoint joinPoint) throws JSONException {
+    private String getParameters(JoinPoint joinPoint) {
         CodeSignature signature = (CodeSignature) joinPoint.getSignature();
         String[] parameterNames = signature.getParameterNames();
+        Class<?>[] parameterTypes = signature.getParameterTypes();
         Object[] args = joinPoint.getArgs();
-        JSONObject params = new JSONObject();
+        StringBuilder params = new StringBuilder("{");
         for (int i = 0; i < parameterNames.length; i++) {
-            params.put(parameterNames[i], args[i]);
+            if (!isLoggable(parameterTypes[i])) {
+                continue;
+            }
+            if (params.length() > 1) {
+                params.append(", ");
+            }
+            params.append(parameterNames[i]).append('=');
+            appendValue(params, args[i]);
+        }
+        return params.append('}').toString();
+    }
+
+    private boolean isLoggable(Class<?> type) {
+        String name = type.getName();
+        return !(name.startsWith("javax.servlet.") || name.startsWith("org.springframework.web.")
+                || name.startsWith("java.io.") || name.startsWith("org.springframework.http."));
+    }
+
+    private void appendValue(StringBuilder params, Object value) {
+        if (value == null || value instanceof Number || value instanceof Boolean || value instanceof Enum) {
+            params.append(value);
+        } else if (value instanceof CharSequence) {
+            CharSequence text = (CharSequence) value;
+            if (text.length() <= maxValueLength) {
+                params.append('"').append(text).append('"');
+            } else {
+                params.append('"').append(text, 0, maxValueLength).append("...\"(").append(text.length()).append(" chars)");
+            }
+        } else if (value instanceof Collection) {
+            params.append(value.getClass().getSimpleName()).append("(size=").append(((Collection<?>) value).size()).append(')');
+        } else if (value instanceof Map) {
+            params.append(value.getClass().getSimpleName()).append("(size=").append(((Map<?, ?>) value).size()).append(')');
+        } else {
+            params.append(value.getClass().getSimpleName());
         }
-        return params;
     }
 }
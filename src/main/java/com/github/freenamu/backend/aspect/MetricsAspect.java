@@ -0,0 +1,73 @@
+package com.github.freenamu.backend.aspect;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times DocumentService operations, including their own transaction. Operations that join a surrounding transaction
+ * are recorded once it commits, so a group commit batch retried edit by edit is not counted twice.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class MetricsAspect {
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Pointcut("execution(public * com.github.freenamu.backend.service.DocumentService.*(..))")
+    public void onDocumentOperation() {
+    }
+
+    @Around("onDocumentOperation()")
+    public Object recordOperationTime(ProceedingJoinPoint joinPoint) throws Throwable {
+        long start = meterRegistry.config().clock().monotonicTime();
+        String outcome = "success";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            outcome = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            record(getTimer(joinPoint.getSignature().getName(), outcome), meterRegistry.config().clock().monotonicTime() - start);
+        }
+    }
+
+    private void record(Timer timer, long elapsedNanos) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            timer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                timer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+            }
+        });
+    }
+
+    private Timer getTimer(String operation, String outcome) {
+        return timers.computeIfAbsent(operation + ':' + outcome, key -> Timer.builder("document.operations")
+                .description("Time spent in DocumentService operations")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .publishPercentiles(0.5, 0.99, 0.999)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+}
@@ -0,0 +1,92 @@
+package com.github.freenamu.backend.cache;
+
+import com.github.freenamu.backend.util.TextDiff;
+import com.github.freenamu.backend.vo.Diff;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Objects;
+
+/**
+ * LRU cache of computed diffs, bounded by the characters they hold. Revisions never change once written, so entries
+ * are only ever evicted, never invalidated.
+ */
+@Component
+public class DiffCache {
+    private static final long ENTRY_OVERHEAD = 256;
+
+    private final LinkedHashMap<Key, Diff> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final long maxWeight;
+    private long weight;
+
+    public DiffCache(@Value("${freenamu.cache.diff.max-weight:33554432}") long maxWeight) {
+        this.maxWeight = maxWeight;
+    }
+
+    public synchronized Diff get(String documentName, TextDiff.Unit unit, int from, int to) {
+        return entries.get(new Key(documentName, unit, from, to));
+    }
+
+    public synchronized void put(String documentName, TextDiff.Unit unit, Diff diff) {
+        long diffWeight = getWeight(diff);
+        if (diffWeight > maxWeight) {
+            return;
+        }
+        Diff previous = entries.put(new Key(documentName, unit, diff.getFrom(), diff.getTo()), diff);
+        if (previous != null) {
+            weight -= getWeight(previous);
+        }
+        weight += diffWeight;
+        Iterator<Diff> iterator = entries.values().iterator();
+        while (weight > maxWeight) {
+            weight -= getWeight(iterator.next());
+            iterator.remove();
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        weight = 0;
+    }
+
+    private static long getWeight(Diff diff) {
+        long result = ENTRY_OVERHEAD;
+        for (Diff.Edit edit : diff.getEdits()) {
+            result += 32 + (edit.getText() == null ? 0 : 2L * edit.getText().length());
+        }
+        return result;
+    }
+
+    private static class Key {
+        private final String documentName;
+        private final TextDiff.Unit unit;
+        private final int from;
+        private final int to;
+
+        private Key(String documentName, TextDiff.Unit unit, int from, int to) {
+            this.documentName = documentName;
+            this.unit = unit;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return from == key.from && to == key.to && documentName.equals(key.documentName) && unit == key.unit;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(documentName, unit, from, to);
+        }
+    }
+}
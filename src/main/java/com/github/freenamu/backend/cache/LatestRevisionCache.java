@@ -0,0 +1,169 @@
+package com.github.freenamu.backend.cache;
+
+import com.github.freenamu.backend.entity.Content;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * LRU cache of the latest revision of each document, bounded both by entry count and by body bytes.
+ * <p>
+ * A load must take a token with {@link #getToken(String)} before reading the database and hand it back to
+ * {@link #put(String, Content, long)}. Writes bump the token of their document, and no puts are accepted for a
+ * document while a write to it is in flight, so a load that raced with a write never caches the old head.
+ */
+@Component
+public class LatestRevisionCache {
+    private static final long ENTRY_OVERHEAD = 256;
+
+    private final LinkedHashMap<String, Content> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Long> generations = new HashMap<>();
+    private final Map<String, Integer> pendingWrites = new HashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final int maxEntries;
+    private final long maxWeight;
+    private long weight;
+    private long nextGeneration;
+    private long generationFloor;
+
+    public LatestRevisionCache(@Value("${freenamu.cache.latest.max-entries:10000}") int maxEntries,
+                               @Value("${freenamu.cache.latest.max-weight:134217728}") long maxWeight) {
+        this.maxEntries = maxEntries;
+        this.maxWeight = maxWeight;
+    }
+
+    public Content get(String documentName) {
+        Content content;
+        synchronized (this) {
+            content = entries.get(documentName);
+        }
+        if (content == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return content;
+    }
+
+    public synchronized long getToken(String documentName) {
+        return generations.getOrDefault(documentName, generationFloor);
+    }
+
+    public synchronized void put(String documentName, Content content, long token) {
+        if (token != getToken(documentName) || pendingWrites.containsKey(documentName)) {
+            return;
+        }
+        long contentWeight = getWeight(content);
+        if (maxEntries <= 0 || contentWeight > maxWeight) {
+            return;
+        }
+        Content previous = entries.put(documentName, content);
+        if (previous != null) {
+            weight -= getWeight(previous);
+        }
+        weight += contentWeight;
+        Iterator<Content> iterator = entries.values().iterator();
+        while (entries.size() > maxEntries || weight > maxWeight) {
+            weight -= getWeight(iterator.next());
+            iterator.remove();
+            evictions.increment();
+        }
+    }
+
+    /**
+     * Invalidates the document now and again when the surrounding transaction completes, refusing puts in between.
+     */
+    public void invalidateOnWrite(String documentName) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate(documentName);
+            return;
+        }
+        synchronized (this) {
+            pendingWrites.merge(documentName, 1, Integer::sum);
+            invalidate(documentName);
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                synchronized (LatestRevisionCache.this) {
+                    pendingWrites.computeIfPresent(documentName, (key, count) -> count == 1 ? null : count - 1);
+                    invalidate(documentName);
+                }
+            }
+        });
+    }
+
+    public synchronized void invalidate(String documentName) {
+        Content previous = entries.remove(documentName);
+        if (previous != null) {
+            weight -= getWeight(previous);
+        }
+        generations.put(documentName, ++nextGeneration);
+        if (generations.size() > Math.max(maxEntries, 1024) * 2L) {
+            generations.keySet().retainAll(pendingWrites.keySet());
+            generationFloor = nextGeneration;
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        weight = 0;
+        generations.keySet().retainAll(pendingWrites.keySet());
+        generationFloor = ++nextGeneration;
+    }
+
+    public Statistics getStatistics() {
+        synchronized (this) {
+            return new Statistics(hits.sum(), misses.sum(), evictions.sum(), entries.size(), weight);
+        }
+    }
+
+    private static long getWeight(Content content) {
+        return content.getByteSize() + ENTRY_OVERHEAD;
+    }
+
+    public static class Statistics {
+        private final long hitCount;
+        private final long missCount;
+        private final long evictionCount;
+        private final int size;
+        private final long weight;
+
+        public Statistics(long hitCount, long missCount, long evictionCount, int size, long weight) {
+            this.hitCount = hitCount;
+            this.missCount = missCount;
+            this.evictionCount = evictionCount;
+            this.size = size;
+            this.weight = weight;
+        }
+
+        public long getHitCount() {
+            return hitCount;
+        }
+
+        public long getMissCount() {
+            return missCount;
+        }
+
+        public long getEvictionCount() {
+            return evictionCount;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public long getWeight() {
+            return weight;
+        }
+    }
+}
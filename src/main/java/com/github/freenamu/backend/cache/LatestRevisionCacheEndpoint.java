@@ -0,0 +1,18 @@
+package com.github.freenamu.backend.cache;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+@Component
+@Endpoint(id = "latestrevisioncache")
+public class LatestRevisionCacheEndpoint {
+    @Autowired
+    private LatestRevisionCache latestRevisionCache;
+
+    @ReadOperation
+    public LatestRevisionCache.Statistics getStatistics() {
+        return latestRevisionCache.getStatistics();
+    }
+}
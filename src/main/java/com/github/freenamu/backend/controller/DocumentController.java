@@ -1,43 +1,142 @@
 package com.github.freenamu.backend.controller;
 
 import com.github.freenamu.backend.entity.Content;
+import com.github.freenamu.backend.exception.EditConflictException;
+import com.github.freenamu.backend.exception.WriteQueueFullException;
+import com.github.freenamu.backend.exception.WriteTimeoutException;
 import com.github.freenamu.backend.service.DocumentService;
+import com.github.freenamu.backend.service.GroupCommitWriter;
+import com.github.freenamu.backend.util.TextDiff;
+import com.github.freenamu.backend.vo.Diff;
 import com.github.freenamu.backend.vo.History;
+import com.github.freenamu.backend.vo.RevisionMetadata;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.servlet.http.HttpServletRequest;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 
 @RestController
 public class DocumentController {
+    private static final int DEFAULT_HISTORY_LIMIT = 100;
+    private static final String IMMUTABLE_CACHE_CONTROL = "public, max-age=31536000, immutable";
+    private static final MediaType TEXT_PLAIN_UTF8 = new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8);
+
     @Autowired
     private DocumentService documentService;
 
+    @Autowired
+    private GroupCommitWriter groupCommitWriter;
+
     @GetMapping("/document/{documentName}/latest/raw")
-    public ResponseEntity<Content> getLatestDocument(@PathVariable String documentName) {
+    public ResponseEntity<Content> getLatestDocument(@PathVariable String documentName, WebRequest webRequest) {
+        if (webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            Integer latestRevisionIndex = documentService.getLatestRevisionIndex(documentName);
+            if (latestRevisionIndex == null) {
+                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+            }
+            if (webRequest.checkNotModified(getETag(latestRevisionIndex))) {
+                return null;
+            }
+        }
         Content content = documentService.getLatestDocument(documentName);
         if (content == null) {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         } else {
-            return new ResponseEntity<>(content, HttpStatus.OK);
+            return ResponseEntity.ok()
+                    .eTag(getETag(content.getRevisionIndex()))
+                    .cacheControl(CacheControl.noCache())
+                    .body(content);
         }
     }
 
     @GetMapping("/document/{documentName}/{revisionIndex}/raw")
-    public ResponseEntity<Content> getDocument(@PathVariable String documentName, @PathVariable int revisionIndex) {
+    public ResponseEntity<Content> getDocument(@PathVariable String documentName, @PathVariable int revisionIndex, WebRequest webRequest) {
+        if (webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            Integer latestRevisionIndex = documentService.getLatestRevisionIndex(documentName);
+            if (latestRevisionIndex != null && 1 <= revisionIndex && revisionIndex <= latestRevisionIndex
+                    && webRequest.checkNotModified(getETag(revisionIndex))) {
+                return null;
+            }
+        }
         Content content = documentService.getDocumentByRevisionIndex(documentName, revisionIndex);
         if (content == null) {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         } else {
-            return new ResponseEntity<>(content, HttpStatus.OK);
+            return ResponseEntity.ok()
+                    .eTag(getETag(revisionIndex))
+                    .header(HttpHeaders.CACHE_CONTROL, IMMUTABLE_CACHE_CONTROL)
+                    .body(content);
+        }
+    }
+
+    @PostMapping("/documents/latest/raw")
+    public ResponseEntity<Map<String, Content>> getLatestDocuments(@RequestBody List<String> documentNames) {
+        try {
+            return new ResponseEntity<>(documentService.getLatestDocuments(new LinkedHashSet<>(documentNames)), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @GetMapping("/document/{documentName}/latest/text")
+    public ResponseEntity<StreamingResponseBody> getLatestDocumentText(@PathVariable String documentName, WebRequest webRequest) {
+        RevisionMetadata metadata = documentService.getLatestRevisionMetadata(documentName);
+        return getDocumentText(documentName, metadata, CacheControl.noCache().getHeaderValue(), webRequest);
+    }
+
+    @GetMapping("/document/{documentName}/{revisionIndex}/text")
+    public ResponseEntity<StreamingResponseBody> getDocumentText(@PathVariable String documentName, @PathVariable int revisionIndex, WebRequest webRequest) {
+        RevisionMetadata metadata = documentService.getRevisionMetadata(documentName, revisionIndex);
+        return getDocumentText(documentName, metadata, IMMUTABLE_CACHE_CONTROL, webRequest);
+    }
+
+    @GetMapping("/document/{documentName}/diff")
+    public ResponseEntity<Diff> getDiff(@PathVariable String documentName, @RequestParam int from, @RequestParam int to, @RequestParam(defaultValue = "line") String unit) {
+        TextDiff.Unit diffUnit;
+        try {
+            diffUnit = TextDiff.Unit.of(unit);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        if (from < 1 || to < 1) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        Diff diff = documentService.getDiff(documentName, from, to, diffUnit);
+        if (diff == null) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        } else {
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.CACHE_CONTROL, IMMUTABLE_CACHE_CONTROL)
+                    .body(diff);
         }
     }
 
     @GetMapping("/document/{documentName}/history")
-    public ResponseEntity<History> getHistoryOfDocument(@PathVariable String documentName) {
-        History history = documentService.getHistoryOfDocument(documentName);
+    public ResponseEntity<History> getHistoryOfDocument(@PathVariable String documentName, @RequestParam(required = false) Integer before, @RequestParam(required = false) Integer limit) {
+        History history;
+        if (before == null && limit == null) {
+            history = documentService.getHistoryOfDocument(documentName);
+        } else {
+            try {
+                history = documentService.getHistoryOfDocument(documentName, before, limit == null ? DEFAULT_HISTORY_LIMIT : limit);
+            } catch (IllegalArgumentException e) {
+                return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+            }
+        }
         if (history == null) {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         } else {
@@ -46,13 +145,65 @@ public class DocumentController {
     }
 
     @PostMapping("/document/{documentName}")
-    public ResponseEntity<Void> PostDocument(@PathVariable String documentName, @RequestParam String contentBody, @RequestParam(defaultValue = "") String comment, HttpServletRequest request) {
+    public ResponseEntity<Void> PostDocument(@PathVariable String documentName, @RequestParam String contentBody, @RequestParam(defaultValue = "") String comment, @RequestParam(required = false) Integer baseRevision, HttpServletRequest request) {
+        boolean saved;
         try {
-            documentService.postDocument(documentName, contentBody, comment, request.getRemoteAddr());
+            saved = groupCommitWriter.postDocument(documentName, contentBody, comment, request.getRemoteAddr(), baseRevision);
         } catch (IllegalArgumentException e) {
             e.printStackTrace();
             return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        } catch (EditConflictException | OptimisticLockingFailureException | DataIntegrityViolationException e) {
+            return new ResponseEntity<>(HttpStatus.CONFLICT);
+        } catch (WriteQueueFullException | WriteTimeoutException e) {
+            return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
+        }
+        // An unchanged body saves no revision, which the caller can tell by the status
+        return new ResponseEntity<>(saved ? HttpStatus.OK : HttpStatus.NO_CONTENT);
+    }
+
+    private ResponseEntity<StreamingResponseBody> getDocumentText(String documentName, RevisionMetadata metadata, String cacheControl, WebRequest webRequest) {
+        if (metadata == null) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
-        return new ResponseEntity<>(HttpStatus.OK);
+        String eTag = getETag(metadata.getRevisionIndex());
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+        long size = metadata.getByteSize();
+        long offset = 0;
+        long length = size;
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        String rangeHeader = webRequest.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader != null) {
+            try {
+                List<HttpRange> ranges = HttpRange.parseRanges(rangeHeader);
+                if (ranges.size() == 1) {
+                    offset = ranges.get(0).getRangeStart(size);
+                    if (offset >= size) {
+                        throw new IllegalArgumentException("range start exceeds body size");
+                    }
+                    length = ranges.get(0).getRangeEnd(size) - offset + 1;
+                    response = ResponseEntity.status(HttpStatus.PARTIAL_CONTENT)
+                            .header(HttpHeaders.CONTENT_RANGE, "bytes " + offset + "-" + (offset + length - 1) + "/" + size);
+                }
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                        .header(HttpHeaders.CONTENT_RANGE, "bytes */" + size)
+                        .build();
+            }
+        }
+        long rangeOffset = offset;
+        long rangeLength = length;
+        return response
+                .eTag(eTag)
+                .header(HttpHeaders.CACHE_CONTROL, cacheControl)
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .contentType(TEXT_PLAIN_UTF8)
+                .contentLength(length)
+                .body(out -> documentService.writeContentBody(documentName, metadata, out, rangeOffset, rangeLength));
+    }
+
+    private String getETag(int revisionIndex) {
+        return "\"" + revisionIndex + "\"";
     }
 }
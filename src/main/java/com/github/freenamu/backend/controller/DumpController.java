@@ -0,0 +1,86 @@
+package com.github.freenamu.backend.controller;
+
+import com.github.freenamu.backend.service.DocumentExporter;
+import com.github.freenamu.backend.service.DocumentImporter;
+import com.github.freenamu.backend.vo.ImportResult;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+@RestController
+public class DumpController {
+    private static final MediaType APPLICATION_GZIP = new MediaType("application", "gzip");
+    private static final int GZIP_BUFFER_SIZE = 65536;
+
+    @Autowired
+    private DocumentImporter documentImporter;
+
+    @Autowired
+    private DocumentExporter documentExporter;
+
+    @Value("${freenamu.import.enabled:false}")
+    private boolean importEnabled;
+
+    @Value("${freenamu.export.enabled:false}")
+    private boolean exportEnabled;
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportDocuments(@RequestParam(defaultValue = "") String after, @RequestParam(required = false) String until) {
+        if (!exportEnabled) {
+            return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+        }
+        return ResponseEntity.ok()
+                .contentType(APPLICATION_GZIP)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename("freenamu.ndjson.gz").build().toString())
+                .body(out -> {
+                    GZIPOutputStream gzip = new GZIPOutputStream(out, GZIP_BUFFER_SIZE);
+                    documentExporter.exportDocuments(after, until, gzip);
+                    gzip.finish();
+                });
+    }
+
+    @GetMapping("/export/ranges")
+    public ResponseEntity<List<String>> getExportRanges(@RequestParam int count) {
+        if (!exportEnabled) {
+            return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+        }
+        try {
+            return new ResponseEntity<>(documentExporter.getRangeBoundaries(count), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @PostMapping("/import")
+    public ResponseEntity<ImportResult> importDocuments(@RequestHeader(value = HttpHeaders.CONTENT_ENCODING, required = false) String contentEncoding, InputStream body) throws IOException {
+        if (!importEnabled) {
+            return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+        }
+        try {
+            InputStream in = "gzip".equalsIgnoreCase(contentEncoding) ? new GZIPInputStream(body) : body;
+            return new ResponseEntity<>(documentImporter.importDocuments(in), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        } catch (OptimisticLockingFailureException | DataIntegrityViolationException e) {
+            return new ResponseEntity<>(HttpStatus.CONFLICT);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.github.freenamu.backend.controller;
+
+import com.github.freenamu.backend.feed.RecentChangeFeed;
+import com.github.freenamu.backend.vo.RecentChange;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+
+@RestController
+public class RecentChangeController {
+    private static final int MAX_LIMIT = 1000;
+
+    @Autowired
+    private RecentChangeFeed recentChangeFeed;
+
+    @GetMapping("/recent-changes")
+    public ResponseEntity<List<RecentChange>> getRecentChanges(@RequestParam(defaultValue = "-1") long after, @RequestParam(defaultValue = "100") int limit) {
+        if (limit < 1 || MAX_LIMIT < limit) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        return new ResponseEntity<>(recentChangeFeed.getRecentChanges(after, limit), HttpStatus.OK);
+    }
+
+    @GetMapping(value = "/recent-changes/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamRecentChanges(@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        SseEmitter emitter = recentChangeFeed.subscribe(lastEventId);
+        if (emitter == null) {
+            return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
+        }
+        return new ResponseEntity<>(emitter, HttpStatus.OK);
+    }
+}
@@ -0,0 +1,45 @@
+package com.github.freenamu.backend.controller;
+
+import com.github.freenamu.backend.search.DocumentNameIndex;
+import com.github.freenamu.backend.search.SearchIndex;
+import com.github.freenamu.backend.vo.SearchResult;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.util.List;
+
+@RestController
+public class SearchController {
+    private static final int MAX_LIMIT = 100;
+
+    @Autowired
+    private SearchIndex searchIndex;
+
+    @Autowired
+    private DocumentNameIndex documentNameIndex;
+
+    @GetMapping("/search")
+    public ResponseEntity<SearchResult> search(@RequestParam String q, @RequestParam(defaultValue = "0") int page, @RequestParam(defaultValue = "20") int limit) throws IOException {
+        if (q.isBlank() || limit < 1 || MAX_LIMIT < limit || page < 0 || (long) page * limit > SearchIndex.MAX_OFFSET) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        try {
+            return new ResponseEntity<>(searchIndex.search(q, page * limit, limit), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @GetMapping("/document-names")
+    public ResponseEntity<List<String>> findDocumentNames(@RequestParam String prefix, @RequestParam(defaultValue = "10") int limit) {
+        if (limit < 1 || MAX_LIMIT < limit) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        return new ResponseEntity<>(documentNameIndex.findByPrefix(prefix, limit), HttpStatus.OK);
+    }
+}
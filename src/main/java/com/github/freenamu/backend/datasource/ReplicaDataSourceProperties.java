@@ -0,0 +1,20 @@
+package com.github.freenamu.backend.datasource;
+
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@ConfigurationProperties("freenamu.datasource")
+public class ReplicaDataSourceProperties {
+    private List<DataSourceProperties> replicas = new ArrayList<>();
+
+    public List<DataSourceProperties> getReplicas() {
+        return replicas;
+    }
+
+    public void setReplicas(List<DataSourceProperties> replicas) {
+        this.replicas = replicas;
+    }
+}
@@ -0,0 +1,19 @@
+package com.github.freenamu.backend.entity;
+
+import com.github.freenamu.backend.util.CompressedText;
+
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+
+@Converter
+public class CompressedTextConverter implements AttributeConverter<CompressedText, byte[]> {
+    @Override
+    public byte[] convertToDatabaseColumn(CompressedText attribute) {
+        return attribute == null ? null : attribute.getBytes();
+    }
+
+    @Override
+    public CompressedText convertToEntityAttribute(byte[] dbData) {
+        return dbData == null ? null : CompressedText.wrap(dbData);
+    }
+}
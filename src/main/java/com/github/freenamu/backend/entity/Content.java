@@ -1,24 +1,67 @@
 package com.github.freenamu.backend.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.github.freenamu.backend.util.CompressedText;
+import com.github.freenamu.backend.util.TextCodec;
+import com.github.freenamu.backend.util.TextHash;
+import org.hibernate.annotations.ColumnDefault;
+
 import javax.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
+@Table(indexes = {@Index(columnList = "document_name, revisionIndex", unique = true), @Index(columnList = "createDate")})
 public class Content {
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "content_sequence")
+    @SequenceGenerator(name = "content_sequence", sequenceName = "hibernate_sequence", allocationSize = 50)
     private Long contentId;
 
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "document_name")
+    private Document document;
+
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private int revisionIndex;
+
     @Column
     private String contributor;
 
     @Column
     private LocalDateTime createDate = LocalDateTime.now();
 
+    @Column(name = "contentBody")
+    @Lob
+    private String legacyPayload;
+
     @Column
     @Lob
+    @Convert(converter = CompressedTextConverter.class)
+    private CompressedText payload;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "blob_hash")
+    private ContentBlob blob;
+
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private int deltaDepth;
+
+    @Column(length = 64)
+    private String bodyHash;
+
+    @Transient
     private String contentBody;
 
+    @Column(nullable = false)
+    @ColumnDefault("-1")
+    private int length;
+
+    @Column(nullable = false)
+    @ColumnDefault("-1")
+    private long byteSize;
+
     @Column
     @Lob
     private String comment;
@@ -31,6 +74,23 @@ public class Content {
         this.contentId = contentId;
     }
 
+    @JsonIgnore
+    public Document getDocument() {
+        return document;
+    }
+
+    public void setDocument(Document document) {
+        this.document = document;
+    }
+
+    public int getRevisionIndex() {
+        return revisionIndex;
+    }
+
+    public void setRevisionIndex(int revisionIndex) {
+        this.revisionIndex = revisionIndex;
+    }
+
     public String getContributor() {
         return contributor;
     }
@@ -43,12 +103,83 @@ public class Content {
         return createDate;
     }
 
+    public void setCreateDate(LocalDateTime createDate) {
+        this.createDate = createDate;
+    }
+
     public String getContentBody() {
+        if (contentBody == null && deltaDepth == 0) {
+            contentBody = getPayloadText();
+        }
         return contentBody;
     }
 
     public void setContentBody(String contentBody) {
         this.contentBody = contentBody;
+        this.legacyPayload = null;
+        this.payload = null;
+        this.blob = null;
+        this.deltaDepth = 0;
+        this.bodyHash = TextHash.sha256(contentBody);
+        this.length = contentBody.length();
+        this.byteSize = getUtf8Length(contentBody);
+    }
+
+    public void restoreContentBody(String contentBody) {
+        this.contentBody = contentBody;
+    }
+
+    @JsonIgnore
+    public String getPayloadText() {
+        if (payload != null) {
+            return payload.decode();
+        }
+        return blob == null ? legacyPayload : blob.getPayload().decode();
+    }
+
+    @JsonIgnore
+    public TextCodec getPayloadCodec() {
+        if (payload != null) {
+            return payload.getCodec();
+        }
+        return blob == null ? TextCodec.NONE : blob.getPayload().getCodec();
+    }
+
+    @JsonIgnore
+    public ContentBlob getBlob() {
+        return blob;
+    }
+
+    public void setBlob(ContentBlob blob) {
+        this.legacyPayload = null;
+        this.payload = null;
+        this.blob = blob;
+        this.deltaDepth = 0;
+    }
+
+    @JsonIgnore
+    public String getBodyHash() {
+        return bodyHash;
+    }
+
+    @JsonIgnore
+    public int getDeltaDepth() {
+        return deltaDepth;
+    }
+
+    public void setPayload(CompressedText payload, int deltaDepth) {
+        this.legacyPayload = null;
+        this.payload = payload;
+        this.blob = null;
+        this.deltaDepth = deltaDepth;
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    public long getByteSize() {
+        return byteSize;
     }
 
     public String getComment() {
@@ -62,4 +193,30 @@ public class Content {
             throw new IllegalArgumentException("too long comment");
         }
     }
+
+    @PrePersist
+    @PreUpdate
+    private void encodeMissingPayload() {
+        if (payload == null && legacyPayload == null && blob == null && contentBody != null) {
+            payload = CompressedText.encode(contentBody, TextCodec.NONE);
+        }
+    }
+
+    private static long getUtf8Length(String s) {
+        long result = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                result += 1;
+            } else if (c < 0x800) {
+                result += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) {
+                result += 4;
+                i++;
+            } else {
+                result += 3;
+            }
+        }
+        return result;
+    }
 }
@@ -0,0 +1,72 @@
+package com.github.freenamu.backend.entity;
+
+import com.github.freenamu.backend.storage.ContentBlobListener;
+import com.github.freenamu.backend.storage.SegmentStore;
+import com.github.freenamu.backend.util.CompressedText;
+import org.hibernate.annotations.BatchSize;
+
+import javax.persistence.*;
+
+/**
+ * A revision body stored once under the SHA-256 of its text and shared by every revision with that body.
+ * <p>
+ * The payload is either kept in this row or, with the segment store, appended to a segment file, in which case the
+ * row only keeps its location and the payload is read from the file when the blob is loaded.
+ */
+@Entity
+@BatchSize(size = 100)
+@EntityListeners(ContentBlobListener.class)
+public class ContentBlob {
+    @Id
+    @Column(length = 64)
+    private String hash;
+
+    @Column
+    @Lob
+    @Convert(converter = CompressedTextConverter.class)
+    private CompressedText payload;
+
+    @Column
+    private Integer segment;
+
+    @Column
+    private Long segmentOffset;
+
+    @Column
+    private Integer segmentLength;
+
+    @Transient
+    private CompressedText segmentPayload;
+
+    protected ContentBlob() {
+    }
+
+    public ContentBlob(String hash, CompressedText payload) {
+        this.hash = hash;
+        this.payload = payload;
+    }
+
+    public ContentBlob(String hash, SegmentStore.Location location, CompressedText payload) {
+        this.hash = hash;
+        this.segment = location.getSegment();
+        this.segmentOffset = location.getOffset();
+        this.segmentLength = location.getLength();
+        this.segmentPayload = payload;
+    }
+
+    public String getHash() {
+        return hash;
+    }
+
+    public CompressedText getPayload() {
+        return payload != null ? payload : segmentPayload;
+    }
+
+    public SegmentStore.Location getSegmentLocation() {
+        return segment == null ? null : new SegmentStore.Location(segment, segmentOffset, segmentLength);
+    }
+
+    public void setSegmentPayload(CompressedText segmentPayload) {
+        this.segmentPayload = segmentPayload;
+    }
+}
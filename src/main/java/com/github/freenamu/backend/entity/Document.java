@@ -1,5 +1,8 @@
 package com.github.freenamu.backend.entity;
 
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.ColumnDefault;
+
 import javax.persistence.*;
 import java.util.ArrayList;
 import java.util.List;
@@ -9,8 +12,15 @@ public class Document {
     @Id
     private String documentName;
 
-    @OneToMany(cascade = CascadeType.ALL)
-    @OrderColumn
+    @Version
+    private Long version;
+
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private int latestRevisionIndex;
+
+    @OneToMany(mappedBy = "document")
+    @OrderBy("revisionIndex")
     private List<Content> revisions = new ArrayList<>();
 
     public String getDocumentName() {
@@ -21,11 +31,19 @@ public class Document {
         this.documentName = documentName;
     }
 
+    public int getLatestRevisionIndex() {
+        return latestRevisionIndex;
+    }
+
     public List<Content> getRevisions() {
         return revisions;
     }
 
     public void addContent(Content content) {
-        revisions.add(content);
+        content.setDocument(this);
+        content.setRevisionIndex(++latestRevisionIndex);
+        if (Hibernate.isInitialized(revisions)) {
+            revisions.add(content);
+        }
     }
 }
@@ -0,0 +1,49 @@
+package com.github.freenamu.backend.event;
+
+import java.time.LocalDateTime;
+
+public class DocumentPostedEvent {
+    private final String documentName;
+    private final int revisionIndex;
+    private final boolean created;
+    private final String contributor;
+    private final int length;
+    private final LocalDateTime createDate;
+
+    public DocumentPostedEvent(String documentName, int revisionIndex, boolean created) {
+        this(documentName, revisionIndex, created, null, 0, LocalDateTime.now());
+    }
+
+    public DocumentPostedEvent(String documentName, int revisionIndex, boolean created, String contributor, int length, LocalDateTime createDate) {
+        this.documentName = documentName;
+        this.revisionIndex = revisionIndex;
+        this.created = created;
+        this.contributor = contributor;
+        this.length = length;
+        this.createDate = createDate;
+    }
+
+    public String getDocumentName() {
+        return documentName;
+    }
+
+    public int getRevisionIndex() {
+        return revisionIndex;
+    }
+
+    public boolean isCreated() {
+        return created;
+    }
+
+    public String getContributor() {
+        return contributor;
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    public LocalDateTime getCreateDate() {
+        return createDate;
+    }
+}
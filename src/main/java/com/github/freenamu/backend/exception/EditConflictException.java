@@ -0,0 +1,7 @@
+package com.github.freenamu.backend.exception;
+
+public class EditConflictException extends RuntimeException {
+    public EditConflictException(String message) {
+        super(message);
+    }
+}
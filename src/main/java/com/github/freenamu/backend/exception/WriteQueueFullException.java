@@ -0,0 +1,7 @@
+package com.github.freenamu.backend.exception;
+
+public class WriteQueueFullException extends RuntimeException {
+    public WriteQueueFullException(String message) {
+        super(message);
+    }
+}
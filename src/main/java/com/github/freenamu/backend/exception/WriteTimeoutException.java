@@ -0,0 +1,7 @@
+package com.github.freenamu.backend.exception;
+
+public class WriteTimeoutException extends RuntimeException {
+    public WriteTimeoutException(String message) {
+        super(message);
+    }
+}
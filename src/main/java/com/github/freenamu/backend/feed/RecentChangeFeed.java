@@ -0,0 +1,257 @@
+package com.github.freenamu.backend.feed;
+
+import com.github.freenamu.backend.event.DocumentPostedEvent;
+import com.github.freenamu.backend.vo.RecentChange;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Ring buffer of the most recent committed edits, pushed to Server-Sent Events subscribers as they arrive.
+ * <p>
+ * Each change takes the next id from a counter and is stored in slot {@code id % capacity}, so writers never wait for
+ * each other to fill their slots. Readers only see changes up to the published cursor, which advances past an id once
+ * its slot is filled, so a poller never skips an id whose slot was still empty when it read. Ids start at
+ * {@code capacity}, leaving the ids below it for changes loaded from the database at startup: {@link #backfill(List)}
+ * only fills slots that are still empty, so it never overwrites a live edit however late it runs.
+ * <p>
+ * Each subscriber has its own queue of at most {@code subscriber-buffer} changes, drained by its own sender task, so
+ * a stalled client never delays the others. A subscriber whose queue is full is dropped, and can reconnect with its
+ * last event id to replay what it missed while that is still buffered.
+ */
+@Component
+public class RecentChangeFeed {
+    private final int capacity;
+    private final int maxSubscribers;
+    private final long streamTimeout;
+    private final int subscriberBuffer;
+    private final AtomicReferenceArray<RecentChange> slots;
+    private final AtomicLong nextId;
+    private volatile long publishedId;
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final ExecutorService sender = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "recent-change-push");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public RecentChangeFeed(@Value("${freenamu.recent-changes.capacity:10000}") int capacity,
+                            @Value("${freenamu.recent-changes.max-subscribers:1000}") int maxSubscribers,
+                            @Value("${freenamu.recent-changes.stream-timeout:1800000}") long streamTimeout,
+                            @Value("${freenamu.recent-changes.subscriber-buffer:100}") int subscriberBuffer) {
+        this.capacity = capacity;
+        this.maxSubscribers = maxSubscribers;
+        this.streamTimeout = streamTimeout;
+        this.subscriberBuffer = subscriberBuffer;
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.nextId = new AtomicLong(capacity);
+        this.publishedId = capacity - 1;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDocumentPosted(DocumentPostedEvent event) {
+        publish(new RecentChange(event.getDocumentName(), event.getRevisionIndex(), event.getContributor(), event.getLength(), event.getCreateDate()));
+    }
+
+    public void publish(RecentChange change) {
+        long id = nextId.getAndIncrement();
+        slots.set(getSlot(id), change.withId(id));
+        advance();
+    }
+
+    /**
+     * Fills the ids below the first live one with older changes, given newest first.
+     */
+    public void backfill(List<RecentChange> changes) {
+        Set<String> published = new HashSet<>();
+        for (RecentChange change : getRecentChanges(-1, capacity)) {
+            published.add(getKey(change));
+        }
+        long id = capacity - 1;
+        for (RecentChange change : changes) {
+            if (id < 0) {
+                break;
+            }
+            if (!published.contains(getKey(change))) {
+                slots.compareAndSet(getSlot(id), null, change.withId(id));
+                id--;
+            }
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} published changes with ids above {@code after}, newest first.
+     */
+    public List<RecentChange> getRecentChanges(long after, int limit) {
+        List<RecentChange> result = new ArrayList<>(Math.min(limit, capacity));
+        long head = publishedId + 1;
+        for (long id = head - 1; id > after && id >= head - capacity && id >= 0 && result.size() < limit; id--) {
+            RecentChange change = slots.get(getSlot(id));
+            if (change != null && change.getId() == id) {
+                result.add(change);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Opens a stream that first replays the buffered changes after {@code lastEventId}, if given, and then pushes
+     * every new change. Returns null if there are too many subscribers.
+     */
+    public synchronized SseEmitter subscribe(Long lastEventId) {
+        if (subscribers.size() >= maxSubscribers) {
+            return null;
+        }
+        SseEmitter emitter = createEmitter(streamTimeout);
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> subscribers.remove(subscriber));
+        if (lastEventId != null) {
+            List<RecentChange> missed = getRecentChanges(lastEventId, capacity);
+            Collections.reverse(missed);
+            subscriber.replay(missed);
+        }
+        subscribers.add(subscriber);
+        return emitter;
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    public void close() {
+        sender.shutdownNow();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+    }
+
+    SseEmitter createEmitter(long timeout) {
+        return new SseEmitter(timeout);
+    }
+
+    /**
+     * Moves the published cursor over every filled slot and queues those changes for the subscribers in id order.
+     * Only queueing happens under the lock, so a slow subscriber never holds it.
+     */
+    private synchronized void advance() {
+        long id;
+        while ((id = publishedId + 1) < nextId.get()) {
+            RecentChange change = slots.get(getSlot(id));
+            if (change == null || change.getId() < id) {
+                return;
+            }
+            publishedId = id;
+            // A newer id in the slot means the change was already overwritten before it could be published
+            if (change.getId() == id) {
+                for (Subscriber subscriber : subscribers) {
+                    subscriber.offer(change);
+                }
+            }
+        }
+    }
+
+    private int getSlot(long id) {
+        return (int) (id % capacity);
+    }
+
+    private static String getKey(RecentChange change) {
+        return change.getRevisionIndex() + ":" + change.getDocumentName();
+    }
+
+    private class Subscriber {
+        private final SseEmitter emitter;
+        private final Deque<RecentChange> pending = new ArrayDeque<>();
+        private boolean sending;
+        private boolean dropped;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        private synchronized void replay(List<RecentChange> changes) {
+            pending.addAll(changes);
+            schedule();
+        }
+
+        private synchronized void offer(RecentChange change) {
+            if (dropped) {
+                return;
+            }
+            if (pending.size() >= subscriberBuffer) {
+                drop(null);
+                return;
+            }
+            pending.add(change);
+            schedule();
+        }
+
+        private void schedule() {
+            if (!sending && !pending.isEmpty()) {
+                sending = true;
+                sender.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                RecentChange change;
+                synchronized (this) {
+                    change = pending.poll();
+                    if (change == null || dropped) {
+                        sending = false;
+                        return;
+                    }
+                }
+                try {
+                    emitter.send(SseEmitter.event().id(Long.toString(change.getId())).name("change").data(change));
+                } catch (IOException | IllegalStateException e) {
+                    synchronized (this) {
+                        sending = false;
+                        drop(e);
+                    }
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Stops pushing to the subscriber. The emitter is completed on a sender thread, since completing waits for a
+         * send that may be stuck on the client.
+         */
+        private void drop(Throwable cause) {
+            dropped = true;
+            pending.clear();
+            subscribers.remove(this);
+            sender.execute(() -> {
+                if (cause == null) {
+                    emitter.complete();
+                } else {
+                    emitter.completeWithError(cause);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.github.freenamu.backend.logging;
+
+import ch.qos.logback.core.PropertyDefinerBase;
+
+/**
+ * Tells logback-spring.xml whether {@code logging.file.name} or {@code logging.file.path} is set, which Spring Boot
+ * passes on as the {@code LOG_FILE} and {@code LOG_PATH} system properties, so that logs are only written to a file
+ * when one was configured.
+ */
+public class FileLoggingPropertyDefiner extends PropertyDefinerBase {
+    @Override
+    public String getPropertyValue() {
+        return System.getProperty("LOG_FILE") != null || System.getProperty("LOG_PATH") != null ? "file" : "console";
+    }
+}
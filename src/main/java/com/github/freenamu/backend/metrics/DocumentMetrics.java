@@ -0,0 +1,77 @@
+package com.github.freenamu.backend.metrics;
+
+import com.github.freenamu.backend.cache.LatestRevisionCache;
+import com.github.freenamu.backend.entity.Content;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@Component
+public class DocumentMetrics implements MeterBinder {
+    private static final String CACHE_NAME = "latestRevision";
+
+    @Autowired
+    private LatestRevisionCache latestRevisionCache;
+
+    private DistributionSummary revisionCount;
+    private DistributionSummary bodySize;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        revisionCount = DistributionSummary.builder("document.revisions")
+                .description("Number of revisions of a document after an edit")
+                .publishPercentiles(0.5, 0.99, 0.999)
+                .publishPercentileHistogram()
+                .register(registry);
+        bodySize = DistributionSummary.builder("document.body.size")
+                .description("Size of posted revision bodies")
+                .baseUnit("bytes")
+                .publishPercentiles(0.5, 0.99, 0.999)
+                .publishPercentileHistogram()
+                .register(registry);
+
+        FunctionCounter.builder("cache.gets", latestRevisionCache, cache -> cache.getStatistics().getHitCount())
+                .tag("cache", CACHE_NAME).tag("result", "hit").register(registry);
+        FunctionCounter.builder("cache.gets", latestRevisionCache, cache -> cache.getStatistics().getMissCount())
+                .tag("cache", CACHE_NAME).tag("result", "miss").register(registry);
+        FunctionCounter.builder("cache.evictions", latestRevisionCache, cache -> cache.getStatistics().getEvictionCount())
+                .tag("cache", CACHE_NAME).register(registry);
+        Gauge.builder("cache.size", latestRevisionCache, cache -> cache.getStatistics().getSize())
+                .tag("cache", CACHE_NAME).register(registry);
+        Gauge.builder("cache.weight", latestRevisionCache, cache -> cache.getStatistics().getWeight())
+                .tag("cache", CACHE_NAME).baseUnit("bytes").register(registry);
+    }
+
+    /**
+     * Records a posted revision, after the surrounding transaction commits if there is one, so that edits retried
+     * after a rolled back batch are only counted once.
+     */
+    public void recordPost(Content content) {
+        if (revisionCount == null) {
+            return;
+        }
+        int revisionIndex = content.getRevisionIndex();
+        long byteSize = content.getByteSize();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            recordPost(revisionIndex, byteSize);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recordPost(revisionIndex, byteSize);
+            }
+        });
+    }
+
+    private void recordPost(int revisionIndex, long byteSize) {
+        revisionCount.record(revisionIndex);
+        bodySize.record(byteSize);
+    }
+}
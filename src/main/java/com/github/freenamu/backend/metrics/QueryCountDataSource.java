@@ -0,0 +1,62 @@
+package com.github.freenamu.backend.metrics;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Set;
+
+/**
+ * Counts the statements prepared on connections of the wrapped data source, per thread, so that JPA and
+ * {@code JdbcTemplate} statements are counted alike. Statements run on other threads, such as the group commit writer
+ * or a streamed response body, are not counted towards the request that caused them.
+ */
+public class QueryCountDataSource extends DelegatingDataSource {
+    private static final Set<String> STATEMENT_METHODS = Set.of("createStatement", "prepareStatement", "prepareCall");
+    private static final ThreadLocal<int[]> count = ThreadLocal.withInitial(() -> new int[1]);
+
+    public QueryCountDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    public static void reset() {
+        count.get()[0] = 0;
+    }
+
+    public static int getCount() {
+        return count.get()[0];
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return countStatements(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return countStatements(super.getConnection(username, password));
+    }
+
+    private static Connection countStatements(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(QueryCountDataSource.class.getClassLoader(), new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    if (STATEMENT_METHODS.contains(method.getName())) {
+                        count.get()[0]++;
+                    }
+            }
+            try {
+                return method.invoke(connection, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        });
+    }
+}
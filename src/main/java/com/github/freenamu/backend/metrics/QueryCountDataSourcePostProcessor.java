@@ -0,0 +1,23 @@
+package com.github.freenamu.backend.metrics;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the data source the application uses in a {@link QueryCountDataSource}. Only the {@code dataSource} bean is
+ * wrapped, since any other data source bean, such as the replica router, sits behind it.
+ */
+@Component
+public class QueryCountDataSourcePostProcessor implements BeanPostProcessor {
+    private static final String DATA_SOURCE_BEAN_NAME = "dataSource";
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource && DATA_SOURCE_BEAN_NAME.equals(beanName)) {
+            return new QueryCountDataSource((DataSource) bean);
+        }
+        return bean;
+    }
+}
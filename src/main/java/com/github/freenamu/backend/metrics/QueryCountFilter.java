@@ -0,0 +1,51 @@
+package com.github.freenamu.backend.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class QueryCountFilter extends OncePerRequestFilter {
+    private final Map<String, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        QueryCountDataSource.reset();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            getSummary(getMethodTag(request), pattern == null ? "UNKNOWN" : pattern.toString()).record(QueryCountDataSource.getCount());
+        }
+    }
+
+    // Any method outside the standard ones shares one tag, so that clients cannot add tag values at will
+    private static String getMethodTag(HttpServletRequest request) {
+        HttpMethod method = HttpMethod.resolve(request.getMethod());
+        return method == null ? "OTHER" : method.name();
+    }
+
+    private DistributionSummary getSummary(String method, String uri) {
+        return summaries.computeIfAbsent(method + ' ' + uri, key -> DistributionSummary.builder("http.server.requests.queries")
+                .description("Number of SQL statements issued while serving a request")
+                .tag("method", method)
+                .tag("uri", uri)
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry));
+    }
+}
@@ -0,0 +1,102 @@
+package com.github.freenamu.backend.migration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Carries rows written by earlier versions over to the current schema once Hibernate has added the new columns.
+ * <p>
+ * Revisions used to be listed in the {@code document_revisions} join table by position; they now point at their
+ * document and carry their own index, and the text length and UTF-8 size of each revision are stored next to it,
+ * which older rows lack until they are filled in here. Every step only touches rows that have not been migrated yet,
+ * so running it again is cheap.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class LegacySchemaMigration {
+    private static final Logger logger = LoggerFactory.getLogger(LegacySchemaMigration.class);
+    private static final String LEGACY_REVISION_TABLE = "document_revisions";
+    private static final int BATCH_SIZE = 1000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void migrate() {
+        if (tableExists(LEGACY_REVISION_TABLE)) {
+            migrateRevisionList();
+        }
+        fillMissingLengths();
+    }
+
+    private void migrateRevisionList() {
+        int revisions = jdbcTemplate.update("update content set " +
+                "document_name = (select r.document_document_name from document_revisions r where r.revisions_content_id = content.content_id), " +
+                "revision_index = (select r.revisions_order + 1 from document_revisions r where r.revisions_content_id = content.content_id) " +
+                "where document_name is null and content_id in (select r.revisions_content_id from document_revisions r)");
+        int documents = jdbcTemplate.update("update document set " +
+                "latest_revision_index = (select max(c.revision_index) from content c where c.document_name = document.document_name) " +
+                "where latest_revision_index = 0 and exists (select 1 from content c where c.document_name = document.document_name)");
+        jdbcTemplate.update("update document set version = 0 where version is null");
+        jdbcTemplate.execute("drop table " + LEGACY_REVISION_TABLE);
+        logger.info("migrated {} revisions of {} documents out of {}", revisions, documents, LEGACY_REVISION_TABLE);
+    }
+
+    /**
+     * Fills in lengths batch by batch in key order. This runs before the application saves any revision, so while
+     * rows are missing their length the newest row is one of them, and checking that row alone skips the scan once
+     * everything is filled in.
+     */
+    private void fillMissingLengths() {
+        Integer latestLength = jdbcTemplate.query("select length from content where content_id = (select max(content_id) from content)",
+                resultSet -> resultSet.next() ? resultSet.getInt(1) : null);
+        if (latestLength == null || latestLength >= 0) {
+            return;
+        }
+        JdbcTemplate batchTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        batchTemplate.setMaxRows(BATCH_SIZE);
+        int count = 0;
+        long lastContentId = Long.MIN_VALUE;
+        List<Object[]> rows;
+        while (!(rows = batchTemplate.query("select content_id, content_body from content where content_id > ? and (length is null or length < 0) and content_body is not null order by content_id",
+                (resultSet, rowNum) -> new Object[]{resultSet.getLong(1), resultSet.getString(2)}, lastContentId)).isEmpty()) {
+            List<Object[]> updates = new ArrayList<>(rows.size());
+            for (Object[] row : rows) {
+                String contentBody = (String) row[1];
+                updates.add(new Object[]{contentBody.length(), contentBody.getBytes(StandardCharsets.UTF_8).length, row[0]});
+            }
+            jdbcTemplate.batchUpdate("update content set length = ?, byte_size = ? where content_id = ?", updates);
+            count += rows.size();
+            lastContentId = (Long) rows.get(rows.size() - 1)[0];
+        }
+        if (count > 0) {
+            logger.info("filled in the length of {} revisions", count);
+        }
+    }
+
+    private boolean tableExists(String tableName) {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            for (String name : new String[]{tableName, tableName.toUpperCase()}) {
+                try (ResultSet tables = metaData.getTables(connection.getCatalog(), null, name, new String[]{"TABLE"})) {
+                    if (tables.next()) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }));
+    }
+}
@@ -0,0 +1,67 @@
+package com.github.freenamu.backend.repository;
+
+import com.github.freenamu.backend.entity.Content;
+import com.github.freenamu.backend.vo.History;
+import com.github.freenamu.backend.vo.RecentChange;
+import com.github.freenamu.backend.vo.RevisionMetadata;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
+@Repository
+public interface ContentRepository extends JpaRepository<Content, Long> {
+    @Query("select c from Content c join c.document d where d.documentName = :documentName and c.revisionIndex = d.latestRevisionIndex")
+    Optional<Content> findLatestRevision(String documentName);
+
+    @Query("select c from Content c join fetch c.document d left join fetch c.blob where d.documentName in :documentNames and c.revisionIndex = d.latestRevisionIndex")
+    List<Content> findLatestRevisions(Collection<String> documentNames);
+
+    @Query("select c.bodyHash from Content c join c.document d where d.documentName = :documentName and c.revisionIndex = d.latestRevisionIndex")
+    Optional<String> findLatestBodyHash(String documentName);
+
+    @Query("select c from Content c where c.document.documentName = :documentName and c.revisionIndex = :revisionIndex")
+    Optional<Content> findRevision(String documentName, int revisionIndex);
+
+    @Query("select new com.github.freenamu.backend.vo.RevisionMetadata(c.contentId, c.revisionIndex, c.deltaDepth, c.byteSize) " +
+            "from Content c join c.document d where d.documentName = :documentName and c.revisionIndex = d.latestRevisionIndex")
+    Optional<RevisionMetadata> findLatestRevisionMetadata(String documentName);
+
+    @Query("select new com.github.freenamu.backend.vo.RevisionMetadata(c.contentId, c.revisionIndex, c.deltaDepth, c.byteSize) " +
+            "from Content c where c.document.documentName = :documentName and c.revisionIndex = :revisionIndex")
+    Optional<RevisionMetadata> findRevisionMetadata(String documentName, int revisionIndex);
+
+    @Query("select c from Content c where c.document.documentName = :documentName and c.revisionIndex between :from and :to order by c.revisionIndex")
+    List<Content> findRevisionRange(String documentName, int from, int to);
+
+    @Query("select new com.github.freenamu.backend.vo.History$Row(c.revisionIndex, c.comment, c.contributor, c.createDate, c.length) " +
+            "from Content c where c.document.documentName = :documentName order by c.revisionIndex")
+    List<History.Row> findHistoryRows(String documentName);
+
+    @Query("select new com.github.freenamu.backend.vo.History$Row(c.revisionIndex, c.comment, c.contributor, c.createDate, c.length) " +
+            "from Content c where c.document.documentName = :documentName and c.revisionIndex < :before order by c.revisionIndex desc")
+    List<History.Row> findHistoryRowsBefore(String documentName, int before, Pageable pageable);
+
+    @Query("select new com.github.freenamu.backend.vo.RecentChange(c.document.documentName, c.revisionIndex, c.contributor, c.length, c.createDate) " +
+            "from Content c order by c.createDate desc, c.contentId desc")
+    List<RecentChange> findRecentChanges(Pageable pageable);
+
+    // MySQL Connector/J only honours the fetch size with useCursorFetch=true in the URL; otherwise it reads the whole result first
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "100"), @QueryHint(name = HINT_READONLY, value = "true")})
+    @Query("select c from Content c join fetch c.document d left join fetch c.blob where d.documentName > :after order by d.documentName, c.revisionIndex")
+    Stream<Content> streamRevisionsAfter(String after);
+
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "100"), @QueryHint(name = HINT_READONLY, value = "true")})
+    @Query("select c from Content c join fetch c.document d left join fetch c.blob where d.documentName > :after and d.documentName <= :until order by d.documentName, c.revisionIndex")
+    Stream<Content> streamRevisionsBetween(String after, String until);
+}
@@ -1,9 +1,40 @@
 package com.github.freenamu.backend.repository;
 
 import com.github.freenamu.backend.entity.Document;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+
 @Repository
 public interface DocumentRepository extends JpaRepository<Document, String> {
+    // Bumps the version as well, so that edits which read the document before the lock was taken fail to commit
+    @Lock(LockModeType.PESSIMISTIC_FORCE_INCREMENT)
+    @Query("select d from Document d where d.documentName = :documentName")
+    Optional<Document> findByIdForUpdate(String documentName);
+
+    @Query("select d.latestRevisionIndex from Document d where d.documentName = :documentName")
+    Optional<Integer> findLatestRevisionIndex(String documentName);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("select d.documentName from Document d")
+    Stream<String> streamDocumentNames();
+
+    @Query("select d.documentName from Document d where d.documentName > :after order by d.documentName")
+    List<String> findDocumentNamesAfter(String after, Pageable pageable);
+
+    @Query(value = "select document_name from (select document_name, row_number() over (order by document_name) as row_index from document) d " +
+            "where row_index in (:rowIndexes) order by document_name", nativeQuery = true)
+    List<String> findDocumentNamesAtRowIndexes(Collection<Long> rowIndexes);
 }
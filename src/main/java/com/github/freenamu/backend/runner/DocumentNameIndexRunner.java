@@ -0,0 +1,33 @@
+package com.github.freenamu.backend.runner;
+
+import com.github.freenamu.backend.repository.DocumentRepository;
+import com.github.freenamu.backend.search.DocumentNameIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.stream.Stream;
+
+@Component
+public class DocumentNameIndexRunner implements ApplicationRunner {
+    private static final Logger logger = LoggerFactory.getLogger(DocumentNameIndexRunner.class);
+
+    @Autowired
+    private DocumentRepository documentRepository;
+
+    @Autowired
+    private DocumentNameIndex documentNameIndex;
+
+    @Override
+    @Transactional(readOnly = true)
+    public void run(ApplicationArguments args) {
+        try (Stream<String> documentNames = documentRepository.streamDocumentNames()) {
+            documentNameIndex.load(documentNames);
+        }
+        logger.info("loaded {} document names", documentNameIndex.size());
+    }
+}
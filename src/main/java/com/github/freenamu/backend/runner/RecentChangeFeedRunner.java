@@ -0,0 +1,34 @@
+package com.github.freenamu.backend.runner;
+
+import com.github.freenamu.backend.feed.RecentChangeFeed;
+import com.github.freenamu.backend.repository.ContentRepository;
+import com.github.freenamu.backend.vo.RecentChange;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Component
+public class RecentChangeFeedRunner implements ApplicationRunner {
+    private static final Logger logger = LoggerFactory.getLogger(RecentChangeFeedRunner.class);
+
+    @Autowired
+    private ContentRepository contentRepository;
+
+    @Autowired
+    private RecentChangeFeed recentChangeFeed;
+
+    @Override
+    @Transactional(readOnly = true)
+    public void run(ApplicationArguments args) {
+        List<RecentChange> changes = contentRepository.findRecentChanges(PageRequest.of(0, recentChangeFeed.getCapacity()));
+        recentChangeFeed.backfill(changes);
+        logger.info("loaded {} recent changes", changes.size());
+    }
+}
@@ -0,0 +1,42 @@
+package com.github.freenamu.backend.runner;
+
+import com.github.freenamu.backend.repository.DocumentRepository;
+import com.github.freenamu.backend.service.DocumentService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+@ConditionalOnProperty(name = "freenamu.revision.repack-on-startup", havingValue = "true")
+public class RevisionRepackRunner implements ApplicationRunner {
+    private static final Logger logger = LoggerFactory.getLogger(RevisionRepackRunner.class);
+    private static final int PAGE_SIZE = 1000;
+
+    @Autowired
+    private DocumentRepository documentRepository;
+
+    @Autowired
+    private DocumentService documentService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        String after = "";
+        int count = 0;
+        List<String> documentNames;
+        while (!(documentNames = documentRepository.findDocumentNamesAfter(after, PageRequest.of(0, PAGE_SIZE))).isEmpty()) {
+            for (String documentName : documentNames) {
+                documentService.repackDocument(documentName);
+            }
+            count += documentNames.size();
+            after = documentNames.get(documentNames.size() - 1);
+            logger.info("repacked {} documents", count);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.github.freenamu.backend.runner;
+
+import com.github.freenamu.backend.search.SearchIndex;
+import com.github.freenamu.backend.search.SearchIndexer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+@Component
+public class SearchIndexRunner implements ApplicationRunner {
+    @Autowired
+    private SearchIndex searchIndex;
+
+    @Autowired
+    private SearchIndexer searchIndexer;
+
+    @Value("${freenamu.search.rebuild-on-startup:false}")
+    private boolean rebuildOnStartup;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (rebuildOnStartup || searchIndex.isEmpty()) {
+            searchIndexer.requestRebuild();
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.github.freenamu.backend.search;
+
+import com.github.freenamu.backend.event.DocumentPostedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.Stream;
+
+/**
+ * Prefix index of document names. Names are folded with NFKD and lower case, so Latin titles match regardless of case
+ * and width, and a Hangul prefix matches while its last syllable is still being typed ("하" matches "한국").
+ * Loaded names are kept in sorted arrays; names created afterwards go to a concurrent set that is merged into the
+ * arrays once it grows large.
+ */
+@Component
+public class DocumentNameIndex {
+    private static final int DEFAULT_COMPACTION_THRESHOLD = 4096;
+    private static final Comparator<Entry> ORDER = Comparator.comparing((Entry entry) -> entry.key).thenComparing(entry -> entry.name);
+
+    private final int compactionThreshold;
+    private final NavigableSet<Entry> additions = new ConcurrentSkipListSet<>(ORDER);
+    private volatile Snapshot snapshot = new Snapshot(new String[0], new String[0]);
+
+    public DocumentNameIndex() {
+        this(DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    DocumentNameIndex(int compactionThreshold) {
+        this.compactionThreshold = compactionThreshold;
+    }
+
+    public static String fold(String text) {
+        return Normalizer.normalize(text, Normalizer.Form.NFKD).toLowerCase(Locale.ROOT);
+    }
+
+    public void load(Stream<String> documentNames) {
+        List<Entry> entries = new ArrayList<>();
+        documentNames.forEach(documentName -> entries.add(new Entry(documentName)));
+        synchronized (this) {
+            entries.addAll(additions);
+            Snapshot loaded = Snapshot.of(entries);
+            snapshot = loaded;
+            additions.removeIf(loaded::contains);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDocumentPosted(DocumentPostedEvent event) {
+        if (event.isCreated()) {
+            add(event.getDocumentName());
+        }
+    }
+
+    public void add(String documentName) {
+        Entry entry = new Entry(documentName);
+        if (!snapshot.contains(entry) && additions.add(entry) && additions.size() >= compactionThreshold) {
+            compact();
+        }
+    }
+
+    public List<String> findByPrefix(String prefix, int limit) {
+        String key = fold(prefix);
+        Snapshot current = snapshot;
+        int index = current.lowerBound(key);
+        Iterator<Entry> added = additions.tailSet(new Entry(key, ""), true).iterator();
+        Entry nextAdded = next(added, key);
+        List<String> result = new ArrayList<>(limit);
+        while (result.size() < limit) {
+            boolean hasBase = index < current.keys.length && current.keys[index].startsWith(key);
+            if (!hasBase && nextAdded == null) {
+                break;
+            }
+            int order = !hasBase ? 1 : nextAdded == null ? -1 : compare(current.keys[index], current.names[index], nextAdded);
+            if (order <= 0) {
+                result.add(current.names[index++]);
+                if (order == 0) {
+                    nextAdded = next(added, key);
+                }
+            } else {
+                result.add(nextAdded.name);
+                nextAdded = next(added, key);
+            }
+        }
+        return result;
+    }
+
+    public int size() {
+        return snapshot.keys.length + additions.size();
+    }
+
+    private synchronized void compact() {
+        if (additions.size() < compactionThreshold) {
+            return;
+        }
+        List<Entry> merged = new ArrayList<>(additions);
+        Snapshot current = snapshot;
+        for (int i = 0; i < current.keys.length; i++) {
+            merged.add(new Entry(current.keys[i], current.names[i]));
+        }
+        Snapshot compacted = Snapshot.of(merged);
+        snapshot = compacted;
+        additions.removeIf(compacted::contains);
+    }
+
+    private static Entry next(Iterator<Entry> iterator, String prefix) {
+        if (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (entry.key.startsWith(prefix)) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    private static int compare(String key, String name, Entry entry) {
+        int order = key.compareTo(entry.key);
+        return order != 0 ? order : name.compareTo(entry.name);
+    }
+
+    private static class Entry {
+        private final String key;
+        private final String name;
+
+        private Entry(String name) {
+            this(fold(name), name);
+        }
+
+        private Entry(String key, String name) {
+            this.key = key.equals(name) ? name : key;
+            this.name = name;
+        }
+    }
+
+    private static class Snapshot {
+        private final String[] keys;
+        private final String[] names;
+
+        private Snapshot(String[] keys, String[] names) {
+            this.keys = keys;
+            this.names = names;
+        }
+
+        private static Snapshot of(List<Entry> entries) {
+            entries.sort(ORDER);
+            List<Entry> unique = new ArrayList<>(entries.size());
+            for (Entry entry : entries) {
+                if (unique.isEmpty() || ORDER.compare(unique.get(unique.size() - 1), entry) != 0) {
+                    unique.add(entry);
+                }
+            }
+            String[] keys = new String[unique.size()];
+            String[] names = new String[unique.size()];
+            for (int i = 0; i < unique.size(); i++) {
+                keys[i] = unique.get(i).key;
+                names[i] = unique.get(i).name;
+            }
+            return new Snapshot(keys, names);
+        }
+
+        private int lowerBound(String key) {
+            int index = Arrays.binarySearch(keys, key);
+            if (index < 0) {
+                return -index - 1;
+            }
+            while (index > 0 && keys[index - 1].equals(key)) {
+                index--;
+            }
+            return index;
+        }
+
+        private boolean contains(Entry entry) {
+            for (int index = lowerBound(entry.key); index < keys.length && keys[index].equals(entry.key); index++) {
+                if (names[index].equals(entry.name)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.github.freenamu.backend.search;
+
+import com.github.freenamu.backend.vo.SearchResult;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.ko.KoreanAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.simple.SimpleQueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Lucene index of the latest revision of each document, kept on local disk or, without a configured path, in memory.
+ */
+@Component
+public class SearchIndex {
+    public static final int MAX_OFFSET = 1000;
+
+    private static final String NAME = "name";
+    private static final String REVISION_INDEX = "revisionIndex";
+    private static final String TITLE = "title";
+    private static final String BODY = "body";
+    private static final Map<String, Float> FIELD_WEIGHTS = Map.of(TITLE, 4f, BODY, 1f);
+
+    private final Analyzer analyzer = new KoreanAnalyzer();
+    private final Directory directory;
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+
+    public SearchIndex(@Value("${freenamu.search.index-path:}") String indexPath) throws IOException {
+        directory = indexPath.isEmpty() ? new ByteBuffersDirectory() : FSDirectory.open(Path.of(indexPath));
+        writer = new IndexWriter(directory, new IndexWriterConfig(analyzer).setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+        searcherManager = new SearcherManager(writer, null);
+    }
+
+    public void update(String documentName, int revisionIndex, String contentBody) throws IOException {
+        Document document = new Document();
+        document.add(new StringField(NAME, documentName, Field.Store.YES));
+        document.add(new StoredField(REVISION_INDEX, revisionIndex));
+        document.add(new TextField(TITLE, documentName, Field.Store.NO));
+        document.add(new TextField(BODY, contentBody, Field.Store.NO));
+        writer.updateDocument(new Term(NAME, documentName), document);
+    }
+
+    public void deleteAll() throws IOException {
+        writer.deleteAll();
+    }
+
+    public void commit() throws IOException {
+        writer.commit();
+        searcherManager.maybeRefresh();
+    }
+
+    public boolean isEmpty() {
+        return writer.getDocStats().numDocs == 0;
+    }
+
+    public SearchResult search(String queryText, int offset, int limit) throws IOException, IllegalArgumentException {
+        if (offset < 0 || MAX_OFFSET < offset || limit < 1) {
+            throw new IllegalArgumentException("page out of range");
+        }
+        SimpleQueryParser parser = new SimpleQueryParser(analyzer, FIELD_WEIGHTS);
+        parser.setDefaultOperator(BooleanClause.Occur.MUST);
+        Query query = parser.parse(queryText);
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            TopDocs topDocs = searcher.search(query, offset + limit);
+            SearchResult result = new SearchResult(topDocs.totalHits.value);
+            for (int i = offset; i < topDocs.scoreDocs.length; i++) {
+                ScoreDoc scoreDoc = topDocs.scoreDocs[i];
+                Document document = searcher.doc(scoreDoc.doc);
+                result.getHits().add(new SearchResult.Hit(document.get(NAME), document.getField(REVISION_INDEX).numericValue().intValue(), scoreDoc.score));
+            }
+            return result;
+        } finally {
+            searcherManager.release(searcher);
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+}
@@ -0,0 +1,29 @@
+package com.github.freenamu.backend.search;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Component
+@Endpoint(id = "searchindex")
+public class SearchIndexEndpoint {
+    @Autowired
+    private SearchIndexer searchIndexer;
+
+    @ReadOperation
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("queueSize", searchIndexer.getQueueSize());
+        return result;
+    }
+
+    @WriteOperation
+    public void rebuild() {
+        searchIndexer.requestRebuild();
+    }
+}
@@ -0,0 +1,152 @@
+package com.github.freenamu.backend.search;
+
+import com.github.freenamu.backend.entity.Content;
+import com.github.freenamu.backend.event.DocumentPostedEvent;
+import com.github.freenamu.backend.repository.ContentRepository;
+import com.github.freenamu.backend.repository.DocumentRepository;
+import com.github.freenamu.backend.service.DocumentService;
+import com.github.freenamu.backend.service.RevisionStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies committed edits to the {@link SearchIndex} on a single background thread.
+ * Rebuilds run on the same thread, so they never overwrite a newer incremental update.
+ */
+@Component
+public class SearchIndexer {
+    private static final Logger logger = LoggerFactory.getLogger(SearchIndexer.class);
+    private static final int BATCH_SIZE = 1000;
+    private static final int REBUILD_PAGE_SIZE = 100;
+
+    @Autowired
+    private SearchIndex searchIndex;
+
+    @Autowired
+    private DocumentService documentService;
+
+    @Autowired
+    private DocumentRepository documentRepository;
+
+    @Autowired
+    private ContentRepository contentRepository;
+
+    @Autowired
+    private RevisionStore revisionStore;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final BlockingQueue<String> queue = new LinkedBlockingQueue<>();
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+    private volatile boolean rebuildRequested;
+    private Thread worker;
+
+    @PostConstruct
+    public void start() {
+        worker = new Thread(this::run, "search-indexer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        worker.interrupt();
+        worker.join();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDocumentPosted(DocumentPostedEvent event) {
+        enqueue(event.getDocumentName());
+    }
+
+    public void enqueue(String documentName) {
+        if (pending.add(documentName)) {
+            queue.add(documentName);
+        }
+    }
+
+    public void requestRebuild() {
+        rebuildRequested = true;
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    private void run() {
+        List<String> batch = new ArrayList<>(BATCH_SIZE);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                if (rebuildRequested) {
+                    rebuildRequested = false;
+                    rebuild();
+                }
+                String documentName = queue.poll(1, TimeUnit.SECONDS);
+                if (documentName == null) {
+                    continue;
+                }
+                batch.add(documentName);
+                queue.drainTo(batch, BATCH_SIZE - 1);
+                for (String name : batch) {
+                    pending.remove(name);
+                    Content content = documentService.getLatestDocument(name);
+                    if (content != null) {
+                        searchIndex.update(name, content.getRevisionIndex(), content.getContentBody());
+                    }
+                }
+                searchIndex.commit();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException | RuntimeException e) {
+                logger.error("failed to update search index", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void rebuild() throws IOException {
+        long start = System.nanoTime();
+        searchIndex.deleteAll();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        String after = "";
+        int count = 0;
+        List<String> documentNames;
+        while (!(documentNames = documentRepository.findDocumentNamesAfter(after, PageRequest.of(0, REBUILD_PAGE_SIZE))).isEmpty()) {
+            List<String> names = documentNames;
+            List<Content> contents = transactionTemplate.execute(status -> {
+                List<Content> latestRevisions = contentRepository.findLatestRevisions(names);
+                for (Content content : latestRevisions) {
+                    revisionStore.materialize(content.getDocument().getDocumentName(), content).getContentBody();
+                }
+                return latestRevisions;
+            });
+            for (Content content : contents) {
+                searchIndex.update(content.getDocument().getDocumentName(), content.getRevisionIndex(), content.getContentBody());
+            }
+            count += documentNames.size();
+            after = documentNames.get(documentNames.size() - 1);
+        }
+        searchIndex.commit();
+        logger.info("rebuilt search index of {} documents in {}ms", count, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+}
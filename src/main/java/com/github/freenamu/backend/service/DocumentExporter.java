@@ -0,0 +1,107 @@
+package com.github.freenamu.backend.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.github.freenamu.backend.entity.Content;
+import com.github.freenamu.backend.entity.Document;
+import com.github.freenamu.backend.repository.ContentRepository;
+import com.github.freenamu.backend.repository.DocumentRepository;
+import com.github.freenamu.backend.util.TextDelta;
+import com.github.freenamu.backend.vo.DumpRecord;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Writes revisions in the newline-delimited JSON format read by {@link DocumentImporter}, ordered by document name
+ * and revision index. Only documents named in {@code (after, until]} are written, so an interrupted export can be
+ * resumed after the last complete document and disjoint ranges can be exported in parallel.
+ */
+@Service
+public class DocumentExporter {
+    public static final int MAX_RANGE_COUNT = 1000;
+
+    @Autowired
+    private DocumentRepository documentRepository;
+
+    @Autowired
+    private ContentRepository contentRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Transactional(readOnly = true)
+    public long exportDocuments(String after, String until, OutputStream out) throws IOException {
+        long revisionCount = 0;
+        try (Stream<Content> revisions = until == null ? contentRepository.streamRevisionsAfter(after) : contentRepository.streamRevisionsBetween(after, until);
+             SequenceWriter writer = objectMapper.writerFor(DumpRecord.class)
+                     .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                     .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                     .withRootValueSeparator("\n")
+                     .writeValues(out)) {
+            Document document = null;
+            String contentBody = null;
+            for (Iterator<Content> iterator = revisions.iterator(); iterator.hasNext(); ) {
+                Content revision = iterator.next();
+                if (revision.getDocument() != document) {
+                    if (document != null) {
+                        entityManager.detach(document);
+                    }
+                    document = revision.getDocument();
+                    contentBody = null;
+                }
+                contentBody = revision.getDeltaDepth() == 0 ? revision.getPayloadText() : TextDelta.apply(contentBody, revision.getPayloadText());
+                DumpRecord record = new DumpRecord();
+                record.setDocumentName(document.getDocumentName());
+                record.setContentBody(contentBody);
+                record.setComment(revision.getComment());
+                record.setContributor(revision.getContributor());
+                record.setCreateDate(revision.getCreateDate());
+                writer.write(record);
+                if (revision.getBlob() != null) {
+                    entityManager.detach(revision.getBlob());
+                }
+                entityManager.detach(revision);
+                revisionCount++;
+            }
+        }
+        out.write('\n');
+        return revisionCount;
+    }
+
+    @Transactional(readOnly = true)
+    public List<String> getRangeBoundaries(int rangeCount) throws IllegalArgumentException {
+        if (rangeCount < 1 || MAX_RANGE_COUNT < rangeCount) {
+            throw new IllegalArgumentException("range count out of range");
+        }
+        long documentCount = documentRepository.count();
+        Set<Long> rowIndexes = new LinkedHashSet<>();
+        for (int i = 1; i < rangeCount; i++) {
+            long rowIndex = documentCount * i / rangeCount;
+            if (rowIndex > 0) {
+                rowIndexes.add(rowIndex);
+            }
+        }
+        if (rowIndexes.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<String> boundaries = documentRepository.findDocumentNamesAtRowIndexes(rowIndexes);
+        return boundaries;
+    }
+}
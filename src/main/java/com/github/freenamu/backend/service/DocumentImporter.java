@@ -0,0 +1,268 @@
+package com.github.freenamu.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.freenamu.backend.cache.LatestRevisionCache;
+import com.github.freenamu.backend.entity.Content;
+import com.github.freenamu.backend.entity.Document;
+import com.github.freenamu.backend.event.DocumentPostedEvent;
+import com.github.freenamu.backend.metrics.DocumentMetrics;
+import com.github.freenamu.backend.repository.ContentRepository;
+import com.github.freenamu.backend.repository.DocumentRepository;
+import com.github.freenamu.backend.vo.DumpRecord;
+import com.github.freenamu.backend.vo.ImportResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Appends revisions read from a newline-delimited JSON dump of {@link DumpRecord}s.
+ * Records of one document must be contiguous and in revision order. Documents are partitioned over
+ * worker threads by name, and each worker writes its records in chunked transactions so that inserts
+ * are sent as JDBC batches.
+ */
+@Service
+public class DocumentImporter {
+    private static final Logger logger = LoggerFactory.getLogger(DocumentImporter.class);
+    private static final int QUEUE_CAPACITY = 4;
+    private static final List<DumpRecord> END_OF_DUMP = List.of();
+
+    @Autowired
+    private DocumentRepository documentRepository;
+
+    @Autowired
+    private ContentRepository contentRepository;
+
+    @Autowired
+    private RevisionStore revisionStore;
+
+    @Autowired
+    private LatestRevisionCache latestRevisionCache;
+
+    @Autowired
+    private DocumentMetrics documentMetrics;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${freenamu.import.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${freenamu.import.workers:4}")
+    private int workerCount;
+
+    public ImportResult importDocuments(InputStream in) throws IOException, IllegalArgumentException {
+        long start = System.nanoTime();
+        AtomicBoolean failed = new AtomicBoolean();
+        List<Worker> workers = new ArrayList<>(workerCount);
+        List<Future<?>> futures = new ArrayList<>(workerCount);
+        ExecutorService executor = Executors.newFixedThreadPool(workerCount, new CustomizableThreadFactory("document-import-"));
+        long documentCount = 0;
+        long revisionCount = 0;
+        boolean completed = false;
+        try {
+            for (int i = 0; i < workerCount; i++) {
+                Worker worker = new Worker(failed);
+                workers.add(worker);
+                futures.add(executor.submit(worker));
+            }
+            List<List<DumpRecord>> chunks = new ArrayList<>(workerCount);
+            for (int i = 0; i < workerCount; i++) {
+                chunks.add(new ArrayList<>(chunkSize));
+            }
+            try (MappingIterator<DumpRecord> records = objectMapper.readerFor(DumpRecord.class).readValues(in)) {
+                String previousDocumentName = null;
+                while (!failed.get() && records.hasNextValue()) {
+                    DumpRecord record = records.nextValue();
+                    if (record.getDocumentName() == null || record.getDocumentName().isEmpty() || record.getContentBody() == null) {
+                        throw new IllegalArgumentException("record " + (revisionCount + 1) + " has no document name or content body");
+                    }
+                    if (record.getContributor() == null) {
+                        throw new IllegalArgumentException("record " + (revisionCount + 1) + " has no contributor");
+                    }
+                    if (!record.getDocumentName().equals(previousDocumentName)) {
+                        previousDocumentName = record.getDocumentName();
+                        documentCount++;
+                    }
+                    revisionCount++;
+                    int partition = Math.floorMod(record.getDocumentName().hashCode(), workerCount);
+                    List<DumpRecord> chunk = chunks.get(partition);
+                    chunk.add(record);
+                    if (chunk.size() >= chunkSize) {
+                        workers.get(partition).submit(chunk);
+                        chunks.set(partition, new ArrayList<>(chunkSize));
+                    }
+                }
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException(e.getOriginalMessage(), e);
+            }
+            for (int i = 0; i < workerCount; i++) {
+                if (!chunks.get(i).isEmpty()) {
+                    workers.get(i).submit(chunks.get(i));
+                }
+            }
+            completed = true;
+        } finally {
+            if (!completed) {
+                failed.set(true);
+            }
+            for (Worker worker : workers) {
+                worker.submit(END_OF_DUMP);
+            }
+            executor.shutdown();
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+        ImportResult result = new ImportResult(documentCount, revisionCount, System.nanoTime() - start);
+        logger.info("imported {} revisions of {} documents in {}ms ({} revisions/s)",
+                result.getRevisionCount(), result.getDocumentCount(), result.getElapsedMillis(), (long) result.getRevisionsPerSecond());
+        return result;
+    }
+
+    private void importChunk(List<DumpRecord> chunk, Worker worker) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Set<String> documentNames = new LinkedHashSet<>();
+            for (DumpRecord record : chunk) {
+                documentNames.add(record.getDocumentName());
+            }
+            Map<String, Document> documents = new HashMap<>();
+            for (Document document : documentRepository.findAllById(documentNames)) {
+                documents.put(document.getDocumentName(), document);
+            }
+            Set<String> createdDocumentNames = new HashSet<>();
+            Map<String, Content> latestContents = new HashMap<>();
+            for (String documentName : documentNames) {
+                latestRevisionCache.invalidateOnWrite(documentName);
+                if (!documents.containsKey(documentName)) {
+                    Document document = new Document();
+                    document.setDocumentName(documentName);
+                    documents.put(documentName, documentRepository.save(document));
+                    createdDocumentNames.add(documentName);
+                }
+            }
+            List<Content> contents = new ArrayList<>(chunk.size());
+            for (DumpRecord record : chunk) {
+                Content content = new Content();
+                content.setContentBody(record.getContentBody());
+                content.setComment(record.getComment() == null ? "" : record.getComment());
+                content.setContributor(record.getContributor());
+                if (record.getCreateDate() != null) {
+                    content.setCreateDate(record.getCreateDate());
+                }
+                documents.get(record.getDocumentName()).addContent(content);
+                contents.add(content);
+            }
+            // New blobs are inserted as one batch before the revisions that point at them are saved
+            RevisionStore.BlobBatch blobBatch = revisionStore.findBlobs(contents);
+            for (int i = 0; i < chunk.size(); i++) {
+                String documentName = chunk.get(i).getDocumentName();
+                Content content = contents.get(i);
+                // The previous revision may come from an earlier chunk, so re-read the base unless nothing was saved in between
+                if (documentName.equals(worker.previousDocumentName)
+                        && worker.previous.getRevisionIndex() == content.getRevisionIndex() - 1) {
+                    revisionStore.encode(content, worker.previous, blobBatch);
+                } else {
+                    revisionStore.encode(documentName, content, blobBatch);
+                }
+                worker.previousDocumentName = documentName;
+                worker.previous = content;
+            }
+            revisionStore.insertBlobs(blobBatch);
+            for (int i = 0; i < chunk.size(); i++) {
+                Content content = contents.get(i);
+                contentRepository.save(content);
+                documentMetrics.recordPost(content);
+                latestContents.put(chunk.get(i).getDocumentName(), content);
+            }
+            for (String documentName : documentNames) {
+                Content latest = latestContents.get(documentName);
+                applicationEventPublisher.publishEvent(new DocumentPostedEvent(documentName, latest.getRevisionIndex(), createdDocumentNames.contains(documentName),
+                        latest.getContributor(), latest.getLength(), latest.getCreateDate()));
+            }
+        });
+    }
+
+    private class Worker implements Runnable {
+        private final BlockingQueue<List<DumpRecord>> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        private final AtomicBoolean failed;
+        private String previousDocumentName;
+        private Content previous;
+
+        private Worker(AtomicBoolean failed) {
+            this.failed = failed;
+        }
+
+        private void submit(List<DumpRecord> chunk) {
+            try {
+                queue.put(chunk);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public void run() {
+            RuntimeException failure = null;
+            try {
+                List<DumpRecord> chunk;
+                while ((chunk = queue.take()) != END_OF_DUMP) {
+                    if (failure == null && !failed.get()) {
+                        try {
+                            importChunk(chunk, this);
+                        } catch (RuntimeException e) {
+                            failure = e;
+                            failed.set(true);
+                        }
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+}
@@ -1,73 +1,318 @@
 package com.github.freenamu.backend.service;
 
+import com.github.freenamu.backend.cache.DiffCache;
+import com.github.freenamu.backend.cache.LatestRevisionCache;
 import com.github.freenamu.backend.entity.Content;
 import com.github.freenamu.backend.entity.Document;
+import com.github.freenamu.backend.event.DocumentPostedEvent;
+import com.github.freenamu.backend.exception.EditConflictException;
+import com.github.freenamu.backend.metrics.DocumentMetrics;
+import com.github.freenamu.backend.repository.ContentRepository;
 import com.github.freenamu.backend.repository.DocumentRepository;
+import com.github.freenamu.backend.util.SingleFlight;
+import com.github.freenamu.backend.util.TextDiff;
+import com.github.freenamu.backend.vo.Diff;
 import com.github.freenamu.backend.vo.History;
+import com.github.freenamu.backend.vo.RevisionMetadata;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.util.Comparator;
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 @Service
 @Transactional
 public class DocumentService {
+    public static final int MAX_HISTORY_LIMIT = 1000;
+    public static final int MAX_BATCH_SIZE = 100;
+
     @Autowired
     private DocumentRepository documentRepository;
 
-    public void postDocument(String documentName, String contentBody, String comment, String contributor) throws IllegalArgumentException {
+    @Autowired
+    private ContentRepository contentRepository;
+
+    @Autowired
+    private RevisionStore revisionStore;
+
+    @Autowired
+    private LatestRevisionCache latestRevisionCache;
+
+    @Autowired
+    private DocumentMetrics documentMetrics;
+
+    @Autowired
+    private DiffCache diffCache;
+
+    @Autowired
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${freenamu.diff.max-cost:10000000}")
+    private long diffMaxCost;
+
+    @Value("${freenamu.diff.max-output-length:1048576}")
+    private int diffMaxOutputLength;
+
+    @Value("${freenamu.single-flight.timeout:5000}")
+    private long singleFlightTimeout;
+
+    private SingleFlight<List<Object>, Content> latestRevisionLoads;
+    private SingleFlight<List<Object>, Content> revisionLoads;
+    private SingleFlight<List<Object>, History> historyLoads;
+    private TransactionTemplate primaryTransactionTemplate;
+    private TransactionTemplate readOnlyTransactionTemplate;
+
+    @PostConstruct
+    public void init() {
+        primaryTransactionTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTransactionTemplate.setReadOnly(true);
+        latestRevisionLoads = new SingleFlight<>(singleFlightTimeout);
+        revisionLoads = new SingleFlight<>(singleFlightTimeout);
+        historyLoads = new SingleFlight<>(singleFlightTimeout);
+    }
+
+    public boolean postDocument(String documentName, String contentBody, String comment, String contributor) throws IllegalArgumentException {
+        return postDocument(documentName, contentBody, comment, contributor, null);
+    }
+
+    /**
+     * Saves the body as a new revision, and returns false without saving anything if it equals the latest revision.
+     */
+    public boolean postDocument(String documentName, String contentBody, String comment, String contributor, Integer baseRevision) throws IllegalArgumentException, EditConflictException {
+        Content content = new Content();
+        content.setContentBody(contentBody);
+        content.setComment(comment);
+        content.setContributor(contributor);
+        latestRevisionCache.invalidateOnWrite(documentName);
         Optional<Document> optionalDocument = documentRepository.findById(documentName);
         Document document;
         if (optionalDocument.isEmpty()) {
             document = new Document();
             document.setDocumentName(documentName);
+            document = documentRepository.save(document);
         } else {
             document = optionalDocument.get();
         }
-        Content content = new Content();
-        content.setContentBody(contentBody);
-        content.setComment(comment);
-        content.setContributor(contributor);
+        if (baseRevision != null && baseRevision != document.getLatestRevisionIndex()) {
+            throw new EditConflictException("document has been edited since revision " + baseRevision);
+        }
+        if (optionalDocument.isPresent() && content.getBodyHash().equals(contentRepository.findLatestBodyHash(documentName).orElse(null))) {
+            return false;
+        }
         document.addContent(content);
-        documentRepository.save(document);
+        revisionStore.encode(documentName, content);
+        contentRepository.save(content);
+        documentMetrics.recordPost(content);
+        applicationEventPublisher.publishEvent(new DocumentPostedEvent(documentName, content.getRevisionIndex(), optionalDocument.isEmpty(),
+                content.getContributor(), content.getLength(), content.getCreateDate()));
+        return true;
+    }
+
+    /**
+     * Rewrites the stored revisions of the document while holding its row lock, so that an edit posted meanwhile
+     * fails with a conflict instead of encoding against delta depths the repack has changed.
+     */
+    public void repackDocument(String documentName) {
+        documentRepository.findByIdForUpdate(documentName)
+                .ifPresent(document -> revisionStore.repack(documentName, document.getLatestRevisionIndex()));
     }
 
+    // Not read-only, so that loads filling the cache are never routed to a lagging replica
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Content getLatestDocument(String documentName) {
-        Optional<Document> optionalDocument = documentRepository.findById(documentName);
-        if (optionalDocument.isPresent()) {
-            Document document = optionalDocument.get();
-            List<Content> revisions = document.getRevisions();
-            return revisions.stream().max(Comparator.comparing(Content::getContentId)).get();
+        Content content = latestRevisionCache.get(documentName);
+        if (content == null) {
+            long token = latestRevisionCache.getToken(documentName);
+            content = coalesce(latestRevisionLoads, Arrays.asList(documentName, token), primaryTransactionTemplate, () -> {
+                Content loaded = revisionStore.materialize(documentName, contentRepository.findLatestRevision(documentName).orElse(null));
+                if (loaded != null) {
+                    loaded.getContentBody();
+                    latestRevisionCache.put(documentName, loaded, token);
+                }
+                return loaded;
+            });
         }
-        return null;
+        return content;
     }
 
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Map<String, Content> getLatestDocuments(Collection<String> documentNames) throws IllegalArgumentException {
+        if (documentNames.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("too many documents");
+        }
+        Map<String, Content> result = new LinkedHashMap<>();
+        Map<String, Long> tokens = new HashMap<>();
+        for (String documentName : documentNames) {
+            Content content = latestRevisionCache.get(documentName);
+            result.put(documentName, content);
+            if (content == null) {
+                tokens.put(documentName, latestRevisionCache.getToken(documentName));
+            }
+        }
+        if (!tokens.isEmpty()) {
+            primaryTransactionTemplate.executeWithoutResult(status -> {
+                for (Content content : contentRepository.findLatestRevisions(tokens.keySet())) {
+                    String documentName = content.getDocument().getDocumentName();
+                    revisionStore.materialize(documentName, content).getContentBody();
+                    result.put(documentName, content);
+                    latestRevisionCache.put(documentName, content, tokens.get(documentName));
+                }
+            });
+        }
+        return result;
+    }
+
+    // Not read-only, so that a lagging replica never answers a conditional request with an outdated revision
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Integer getLatestRevisionIndex(String documentName) {
+        Content content = latestRevisionCache.get(documentName);
+        if (content != null) {
+            return content.getRevisionIndex();
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return documentRepository.findLatestRevisionIndex(documentName).orElse(null);
+        }
+        return primaryTransactionTemplate.execute(status -> documentRepository.findLatestRevisionIndex(documentName).orElse(null));
+    }
+
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Content getDocumentByRevisionIndex(String documentName, int revisionIndex) {
-        Optional<Document> optionalDocument = documentRepository.findById(documentName);
-        if (optionalDocument.isPresent()) {
-            Document document = optionalDocument.get();
-            List<Content> revisions = document.getRevisions();
-            if (1 <= revisionIndex && revisionIndex <= revisions.size()) {
-                return revisions.get(revisionIndex - 1);
+        return coalesce(revisionLoads, Arrays.asList(documentName, revisionIndex, latestRevisionCache.getToken(documentName)), readOnlyTransactionTemplate, () -> {
+            Content content = revisionStore.materialize(documentName, contentRepository.findRevision(documentName, revisionIndex).orElse(null));
+            if (content != null) {
+                content.getContentBody();
+            }
+            return content;
+        });
+    }
+
+    @Transactional(readOnly = true)
+    public Diff getDiff(String documentName, int from, int to, TextDiff.Unit unit) {
+        Diff diff = diffCache.get(documentName, unit, from, to);
+        if (diff != null) {
+            return diff;
+        }
+        Content fromContent = getDocumentByRevisionIndex(documentName, from);
+        Content toContent = fromContent == null ? null : getDocumentByRevisionIndex(documentName, to);
+        if (toContent == null) {
+            return null;
+        }
+        diff = new Diff(from, to);
+        new TextDiff(unit, diffMaxCost, diffMaxOutputLength).diff(fromContent.getContentBody(), toContent.getContentBody(), diff);
+        diffCache.put(documentName, unit, diff);
+        return diff;
+    }
+
+    // Not read-only for the same reason as getLatestRevisionIndex
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public RevisionMetadata getLatestRevisionMetadata(String documentName) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return contentRepository.findLatestRevisionMetadata(documentName).orElse(null);
+        }
+        return primaryTransactionTemplate.execute(status -> contentRepository.findLatestRevisionMetadata(documentName).orElse(null));
+    }
+
+    @Transactional(readOnly = true)
+    public RevisionMetadata getRevisionMetadata(String documentName, int revisionIndex) {
+        return contentRepository.findRevisionMetadata(documentName, revisionIndex).orElse(null);
+    }
+
+    /**
+     * Streams the body from a replica, or from the primary if the replica has not caught up with the metadata yet,
+     * which may have been read on another replica or on the primary.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public void writeContentBody(String documentName, RevisionMetadata metadata, OutputStream out, long offset, long length) throws IOException {
+        try {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                writeContentBody(documentName, metadata, out, offset, length, true);
+                return;
+            }
+            if (!readOnlyTransactionTemplate.execute(status -> writeContentBody(documentName, metadata, out, offset, length, false))) {
+                primaryTransactionTemplate.execute(status -> writeContentBody(documentName, metadata, out, offset, length, true));
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private boolean writeContentBody(String documentName, RevisionMetadata metadata, OutputStream out, long offset, long length, boolean required) {
+        try {
+            boolean written = revisionStore.writeContentBody(documentName, metadata, out, offset, length);
+            if (!written && required) {
+                throw new IllegalStateException("revision " + metadata.getRevisionIndex() + " of " + documentName + " does not exist");
             }
+            return written;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
-        return null;
     }
 
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public History getHistoryOfDocument(String documentName) {
-        Optional<Document> optionalDocument = documentRepository.findById(documentName);
-        if (optionalDocument.isPresent()) {
-            Document document = optionalDocument.get();
-            List<Content> revisions = document.getRevisions();
-            History result = new History();
-            for (Content content : revisions) {
-                result.add(content);
+        return coalesce(historyLoads, Arrays.asList(documentName, latestRevisionCache.getToken(documentName)), readOnlyTransactionTemplate, () -> {
+            List<History.Row> rows = contentRepository.findHistoryRows(documentName);
+            if (rows.isEmpty()) {
+                return null;
+            }
+            return new History(rows);
+        });
+    }
+
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public History getHistoryOfDocument(String documentName, Integer before, int limit) throws IllegalArgumentException {
+        if (limit < 1 || MAX_HISTORY_LIMIT < limit) {
+            throw new IllegalArgumentException("limit out of range");
+        }
+        int cursor = before == null ? Integer.MAX_VALUE : before;
+        return coalesce(historyLoads, Arrays.asList(documentName, cursor, limit, latestRevisionCache.getToken(documentName)), readOnlyTransactionTemplate, () -> {
+            List<History.Row> rows = contentRepository.findHistoryRowsBefore(documentName, cursor, PageRequest.of(0, limit));
+            if (rows.isEmpty() && !documentRepository.existsById(documentName)) {
+                return null;
+            }
+            History result = new History(rows);
+            if (!rows.isEmpty()) {
+                int lastRevisionIndex = rows.get(rows.size() - 1).getRevisionIndex();
+                if (lastRevisionIndex > 1) {
+                    result.setNextCursor(lastRevisionIndex);
+                }
             }
             return result;
+        });
+    }
+
+    /**
+     * Shares the load with concurrent callers of the same key, running it in a transaction of its own so that waiting
+     * callers hold no connection. The cache token in each key keeps callers arriving after a write from joining
+     * a load that started before it. Callers already in a transaction load directly, as they hold a connection anyway
+     * and may need to see their own changes.
+     */
+    private <V> V coalesce(SingleFlight<List<Object>, V> loads, List<Object> key, TransactionTemplate transactionTemplate, Supplier<V> loader) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return loader.get();
         }
-        return null;
+        return loads.load(key, () -> transactionTemplate.execute(status -> loader.get()));
     }
 }
@@ -0,0 +1,196 @@
+package com.github.freenamu.backend.service;
+
+import com.github.freenamu.backend.exception.EditConflictException;
+import com.github.freenamu.backend.exception.WriteQueueFullException;
+import com.github.freenamu.backend.exception.WriteTimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Posts edits, optionally through a group commit queue.
+ * <p>
+ * When enabled, callers hand their edit to a bounded queue and wait for its outcome. A single writer thread drains up
+ * to {@code max-batch-size} edits, waiting at most {@code max-wait} for more after the first, and posts them all in one
+ * transaction. If that transaction fails, the edits of the batch are retried one transaction each, so a conflicting or
+ * invalid edit fails alone and every caller still gets the result of its own edit. A caller stops waiting after
+ * {@code result-timeout}; its edit is withdrawn if the writer has not taken it yet, and may still be saved otherwise.
+ */
+@Service
+public class GroupCommitWriter {
+    private static final Logger logger = LoggerFactory.getLogger(GroupCommitWriter.class);
+
+    @Autowired
+    private DocumentService documentService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${freenamu.write.group-commit.enabled:false}")
+    private boolean enabled;
+
+    @Value("${freenamu.write.group-commit.max-batch-size:32}")
+    private int maxBatchSize;
+
+    @Value("${freenamu.write.group-commit.max-wait:5}")
+    private long maxWaitMillis;
+
+    @Value("${freenamu.write.group-commit.queue-capacity:1024}")
+    private int queueCapacity;
+
+    @Value("${freenamu.write.group-commit.enqueue-timeout:1000}")
+    private long enqueueTimeoutMillis;
+
+    @Value("${freenamu.write.group-commit.result-timeout:10000}")
+    private long resultTimeoutMillis;
+
+    private BlockingQueue<Edit> queue;
+    private Thread worker;
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        worker = new Thread(this::run, "group-commit-writer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (worker != null) {
+            worker.interrupt();
+            worker.join();
+            List<Edit> remaining = new ArrayList<>();
+            queue.drainTo(remaining);
+            for (Edit edit : remaining) {
+                edit.result.completeExceptionally(new IllegalStateException("writer has been stopped"));
+            }
+        }
+    }
+
+    /**
+     * Writes the edit like {@link DocumentService#postDocument(String, String, String, String, Integer)} and returns
+     * whether a revision was saved.
+     */
+    public boolean postDocument(String documentName, String contentBody, String comment, String contributor, Integer baseRevision) throws IllegalArgumentException, EditConflictException, WriteQueueFullException, WriteTimeoutException {
+        if (!enabled) {
+            return documentService.postDocument(documentName, contentBody, comment, contributor, baseRevision);
+        }
+        Edit edit = new Edit(documentName, contentBody, comment, contributor, baseRevision);
+        try {
+            if (!queue.offer(edit, enqueueTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new WriteQueueFullException("write queue is full");
+            }
+            return edit.result.get(resultTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            queue.remove(edit);
+            throw new WriteTimeoutException("write did not complete in time");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    public int getQueueSize() {
+        return queue == null ? 0 : queue.size();
+    }
+
+    private void run() {
+        List<Edit> batch = new ArrayList<>(maxBatchSize);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                batch.add(queue.take());
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+                while (batch.size() < maxBatchSize) {
+                    if (queue.drainTo(batch, maxBatchSize - batch.size()) > 0) {
+                        continue;
+                    }
+                    Edit edit = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (edit == null) {
+                        break;
+                    }
+                    batch.add(edit);
+                }
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                for (Edit edit : batch) {
+                    edit.result.completeExceptionally(new IllegalStateException("writer has been stopped"));
+                }
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<Edit> batch) {
+        if (batch.size() > 1) {
+            try {
+                List<Boolean> saved = new TransactionTemplate(transactionManager).execute(status -> {
+                    List<Boolean> result = new ArrayList<>(batch.size());
+                    for (Edit edit : batch) {
+                        result.add(post(edit));
+                    }
+                    return result;
+                });
+                for (int i = 0; i < batch.size(); i++) {
+                    batch.get(i).result.complete(saved.get(i));
+                }
+                return;
+            } catch (RuntimeException e) {
+                logger.debug("group commit of {} edits failed, retrying one by one", batch.size(), e);
+            }
+        }
+        for (Edit edit : batch) {
+            try {
+                edit.result.complete(post(edit));
+            } catch (RuntimeException e) {
+                edit.result.completeExceptionally(e);
+            }
+        }
+    }
+
+    private boolean post(Edit edit) {
+        return documentService.postDocument(edit.documentName, edit.contentBody, edit.comment, edit.contributor, edit.baseRevision);
+    }
+
+    private static class Edit {
+        private final String documentName;
+        private final String contentBody;
+        private final String comment;
+        private final String contributor;
+        private final Integer baseRevision;
+        private final CompletableFuture<Boolean> result = new CompletableFuture<>();
+
+        private Edit(String documentName, String contentBody, String comment, String contributor, Integer baseRevision) {
+            this.documentName = documentName;
+            this.contentBody = contentBody;
+            this.comment = comment;
+            this.contributor = contributor;
+            this.baseRevision = baseRevision;
+        }
+    }
+}
@@ -0,0 +1,353 @@
+package com.github.freenamu.backend.service;
+
+import com.github.freenamu.backend.entity.Content;
+import com.github.freenamu.backend.entity.ContentBlob;
+import com.github.freenamu.backend.repository.ContentRepository;
+import com.github.freenamu.backend.storage.BlobStore;
+import com.github.freenamu.backend.storage.SegmentStore;
+import com.github.freenamu.backend.util.CompressedText;
+import com.github.freenamu.backend.util.RangeOutputStream;
+import com.github.freenamu.backend.util.TextCodec;
+import com.github.freenamu.backend.util.TextDelta;
+import com.github.freenamu.backend.vo.RevisionMetadata;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@Component
+public class RevisionStore {
+    private static final int REPACK_BATCH_SIZE = 100;
+    private static final int BUFFER_SIZE = 8192;
+    private static final int LOOKUP_BATCH_SIZE = 500;
+    private static final String INSERT_BLOB = "insert into content_blob (hash, payload, segment, segment_offset, segment_length) values (?, ?, ?, ?, ?)";
+
+    @Autowired
+    private ContentRepository contentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BlobStore blobStore;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${freenamu.revision.keyframe-interval:1}")
+    private int keyframeInterval;
+
+    @Value("${freenamu.revision.codec:deflate}")
+    private TextCodec codec;
+
+    public void encode(String documentName, Content content) {
+        encode(documentName, content, null);
+    }
+
+    public void encode(Content content, Content previous) {
+        encode(content, previous, null);
+    }
+
+    /**
+     * Encodes the revision like {@link #encode(String, Content)}, but collects a new blob in the batch instead of
+     * inserting it, so that the caller inserts it with {@link #insertBlobs(BlobBatch)} before saving the revision.
+     */
+    public void encode(String documentName, Content content, BlobBatch blobBatch) {
+        int previousRevisionIndex = content.getRevisionIndex() - 1;
+        Content previous = null;
+        if (keyframeInterval > 1 && previousRevisionIndex >= 1) {
+            previous = materialize(documentName, contentRepository.findRevision(documentName, previousRevisionIndex).orElse(null));
+        }
+        encode(content, previous, blobBatch);
+    }
+
+    public void encode(Content content, Content previous, BlobBatch blobBatch) {
+        if (previous == null) {
+            encode(content, null, 0, null, blobBatch);
+        } else {
+            encode(content, previous.getContentBody(), previous.getDeltaDepth(), null, blobBatch);
+        }
+    }
+
+    /**
+     * Looks up which bodies of the given revisions are already stored, with one query per few hundred hashes.
+     */
+    public BlobBatch findBlobs(Collection<Content> contents) {
+        Set<String> distinctHashes = new HashSet<>();
+        for (Content content : contents) {
+            distinctHashes.add(content.getBodyHash());
+        }
+        List<String> hashes = new ArrayList<>(distinctHashes);
+        Set<String> existingHashes = new HashSet<>();
+        for (int from = 0; from < hashes.size(); from += LOOKUP_BATCH_SIZE) {
+            List<String> batch = hashes.subList(from, Math.min(from + LOOKUP_BATCH_SIZE, hashes.size()));
+            existingHashes.addAll(jdbcTemplate.queryForList("select hash from content_blob where hash in (" + String.join(", ", Collections.nCopies(batch.size(), "?")) + ")",
+                    String.class, batch.toArray()));
+        }
+        return new BlobBatch(existingHashes);
+    }
+
+    /**
+     * Inserts the blobs collected in the batch as one JDBC batch. If another transaction stored one of the bodies
+     * first, the batch is rolled back to a savepoint and the blobs are inserted one by one instead.
+     */
+    public void insertBlobs(BlobBatch blobBatch) {
+        if (blobBatch.newBlobs.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(blobBatch.newBlobs.size());
+        for (ContentBlob blob : blobBatch.newBlobs) {
+            rows.add(toRow(blob));
+        }
+        if (!insertUnderSavepoint(() -> jdbcTemplate.batchUpdate(INSERT_BLOB, rows))) {
+            for (ContentBlob blob : blobBatch.newBlobs) {
+                insertBlob(blob);
+            }
+        }
+        blobBatch.newBlobs.clear();
+    }
+
+    public Content materialize(String documentName, Content content) {
+        if (content == null || content.getContentBody() != null) {
+            return content;
+        }
+        int keyframeIndex = content.getRevisionIndex() - content.getDeltaDepth();
+        List<Content> chain = contentRepository.findRevisionRange(documentName, keyframeIndex, content.getRevisionIndex() - 1);
+        String contentBody = null;
+        for (Content revision : chain) {
+            if (revision.getContentBody() == null) {
+                revision.restoreContentBody(TextDelta.apply(contentBody, revision.getPayloadText()));
+            }
+            contentBody = revision.getContentBody();
+        }
+        content.restoreContentBody(TextDelta.apply(contentBody, content.getPayloadText()));
+        return content;
+    }
+
+    /**
+     * Writes the byte range of the revision body, or returns false without writing anything if the revision is not
+     * stored, as on a replica that has not caught up yet. The delta depth is read again with the payload instead of
+     * taken from the metadata, since the revision may have been repacked since the metadata was read.
+     */
+    public boolean writeContentBody(String documentName, RevisionMetadata metadata, OutputStream out, long offset, long length) throws IOException {
+        Boolean isDelta;
+        try {
+            isDelta = jdbcTemplate.query("select coalesce(c.payload, b.payload), c.content_body, b.hash, b.segment, b.segment_offset, b.segment_length, c.delta_depth from content c left join content_blob b on b.hash = c.blob_hash where c.content_id = ?", resultSet -> {
+                if (!resultSet.next()) {
+                    return null;
+                }
+                if (resultSet.getInt(7) > 0) {
+                    return true;
+                }
+                try {
+                    writePayload(resultSet, out, offset, length);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return false;
+            }, metadata.getContentId());
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        if (isDelta == null) {
+            return false;
+        }
+        if (isDelta) {
+            Content content = contentRepository.findById(metadata.getContentId()).orElseThrow();
+            new RangeOutputStream(out, offset, length).write(materialize(documentName, content).getContentBody().getBytes(StandardCharsets.UTF_8));
+        }
+        return true;
+    }
+
+    public void repack(String documentName, int latestRevisionIndex) {
+        String previousBody = null;
+        int previousDepth = 0;
+        for (int from = 1; from <= latestRevisionIndex; from += REPACK_BATCH_SIZE) {
+            int to = Math.min(from + REPACK_BATCH_SIZE - 1, latestRevisionIndex);
+            for (Content revision : contentRepository.findRevisionRange(documentName, from, to)) {
+                String contentBody = revision.getDeltaDepth() == 0 ? revision.getPayloadText() : TextDelta.apply(previousBody, revision.getPayloadText());
+                ContentBlob ownBlob = revision.getBlob();
+                revision.setContentBody(contentBody);
+                encode(revision, previousBody, previousDepth, ownBlob, null);
+                previousBody = contentBody;
+                previousDepth = revision.getDeltaDepth();
+            }
+            entityManager.flush();
+            entityManager.clear();
+        }
+    }
+
+    /**
+     * Points the revision at the stored blob of its body if there is one, which makes reverts and repeated bodies
+     * free. Otherwise the revision stores a delta if that is shorter, or its body as a new blob. The blob a repacked
+     * revision already points at does not count, so repacking can still turn it into a delta.
+     */
+    private void encode(Content content, String previousBody, int previousDepth, ContentBlob ownBlob, BlobBatch blobBatch) {
+        String contentBody = content.getContentBody();
+        String hash = content.getBodyHash();
+        boolean blobExists = blobBatch == null ? blobExists(hash) : blobBatch.existingHashes.contains(hash);
+        if (blobExists && (ownBlob == null || !ownBlob.getHash().equals(hash))) {
+            content.setBlob(entityManager.getReference(ContentBlob.class, hash));
+            return;
+        }
+        if (previousBody != null && previousDepth + 1 < keyframeInterval) {
+            String delta = TextDelta.encode(previousBody, contentBody);
+            if (delta.length() < content.getLength()) {
+                content.setPayload(CompressedText.encode(delta, codec), previousDepth + 1);
+                return;
+            }
+        }
+        if (!blobExists) {
+            ContentBlob blob = blobStore.create(hash, CompressedText.encode(contentBody, codec));
+            if (blobBatch == null) {
+                insertBlob(blob);
+            } else {
+                blobBatch.newBlobs.add(blob);
+                blobBatch.existingHashes.add(hash);
+            }
+        }
+        content.setBlob(entityManager.getReference(ContentBlob.class, hash));
+    }
+
+    // Queried directly, so that neither the payload is loaded nor pending revisions are flushed
+    private boolean blobExists(String hash) {
+        Integer count = jdbcTemplate.queryForObject("select count(*) from content_blob where hash = ?", Integer.class, hash);
+        return count != null && count > 0;
+    }
+
+    /**
+     * Inserts the blob right away under a savepoint. When another transaction stored the same body first, the insert
+     * is rolled back to the savepoint and the revision shares that blob instead of failing the whole edit.
+     */
+    private void insertBlob(ContentBlob blob) {
+        insertUnderSavepoint(() -> jdbcTemplate.update(INSERT_BLOB, toRow(blob)));
+    }
+
+    /**
+     * Runs the insert under a savepoint when a transaction is active, and returns false after rolling back to the
+     * savepoint if the insert hit a blob that another transaction has committed.
+     */
+    private boolean insertUnderSavepoint(Runnable insert) {
+        Connection connection = DataSourceUtils.getConnection(jdbcTemplate.getDataSource());
+        try {
+            Savepoint savepoint = TransactionSynchronizationManager.isActualTransactionActive() ? connection.setSavepoint() : null;
+            try {
+                insert.run();
+            } catch (DuplicateKeyException e) {
+                if (savepoint != null) {
+                    connection.rollback(savepoint);
+                }
+                return false;
+            }
+            if (savepoint != null) {
+                connection.releaseSavepoint(savepoint);
+            }
+            return true;
+        } catch (SQLException e) {
+            throw jdbcTemplate.getExceptionTranslator().translate("insert blob", null, e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, jdbcTemplate.getDataSource());
+        }
+    }
+
+    private static Object[] toRow(ContentBlob blob) {
+        SegmentStore.Location location = blob.getSegmentLocation();
+        return new Object[]{
+                blob.getHash(),
+                location == null ? blob.getPayload().getBytes() : null,
+                location == null ? null : location.getSegment(),
+                location == null ? null : location.getOffset(),
+                location == null ? null : location.getLength()};
+    }
+
+    private void writePayload(ResultSet resultSet, OutputStream out, long offset, long length) throws SQLException, IOException {
+        try (InputStream payload = resultSet.getBinaryStream(1)) {
+            if (payload != null) {
+                writePayload(payload, out, offset, length);
+                return;
+            }
+        }
+        int segment = resultSet.getInt(4);
+        if (!resultSet.wasNull()) {
+            SegmentStore.Location location = new SegmentStore.Location(segment, resultSet.getLong(5), resultSet.getInt(6));
+            try (InputStream payload = blobStore.openSegment(resultSet.getString(3), location)) {
+                writePayload(payload, out, offset, length);
+                return;
+            }
+        }
+        try (Reader legacyPayload = resultSet.getCharacterStream(2)) {
+            if (legacyPayload != null) {
+                Writer writer = new OutputStreamWriter(new RangeOutputStream(out, offset, length), StandardCharsets.UTF_8);
+                legacyPayload.transferTo(writer);
+                writer.flush();
+            }
+        }
+    }
+
+    private static void writePayload(InputStream payload, OutputStream out, long offset, long length) throws IOException {
+        TextCodec codec = TextCodec.of((byte) payload.read());
+        if (codec == TextCodec.NONE) {
+            skip(payload, offset);
+            copy(payload, new RangeOutputStream(out, 0, length));
+        } else {
+            copy(codec.decompress(payload), new RangeOutputStream(out, offset, length));
+        }
+    }
+
+    private static void skip(InputStream in, long count) throws IOException {
+        while (count > 0) {
+            long skipped = in.skip(count);
+            if (skipped <= 0) {
+                if (in.read() < 0) {
+                    return;
+                }
+                skipped = 1;
+            }
+            count -= skipped;
+        }
+    }
+
+    private static void copy(InputStream in, RangeOutputStream out) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int read;
+        while (!out.isComplete() && (read = in.read(buffer)) >= 0) {
+            out.write(buffer, 0, read);
+        }
+    }
+
+    /**
+     * Blob hashes known to be stored, and blobs waiting to be inserted, for revisions encoded together.
+     */
+    public static class BlobBatch {
+        private final Set<String> existingHashes;
+        private final List<ContentBlob> newBlobs = new ArrayList<>();
+
+        private BlobBatch(Set<String> existingHashes) {
+            this.existingHashes = existingHashes;
+        }
+    }
+}
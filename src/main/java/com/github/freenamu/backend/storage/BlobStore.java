@@ -0,0 +1,29 @@
+package com.github.freenamu.backend.storage;
+
+import com.github.freenamu.backend.entity.ContentBlob;
+import com.github.freenamu.backend.util.CompressedText;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Where new revision bodies are written, chosen with {@code freenamu.revision.store}.
+ */
+public interface BlobStore {
+    /**
+     * Stores the payload and returns the blob to persist for it.
+     */
+    ContentBlob create(String hash, CompressedText payload);
+
+    /**
+     * Opens the payload of a blob kept in a segment file.
+     */
+    InputStream openSegment(String hash, SegmentStore.Location location) throws IOException;
+
+    /**
+     * Returns the payload of a blob kept in a segment file as a read-only buffer, which is a slice of the mapping when
+     * the segment is sealed.
+     */
+    ByteBuffer readSegment(String hash, SegmentStore.Location location) throws IOException;
+}
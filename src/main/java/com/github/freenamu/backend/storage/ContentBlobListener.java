@@ -0,0 +1,33 @@
+package com.github.freenamu.backend.storage;
+
+import com.github.freenamu.backend.entity.ContentBlob;
+import com.github.freenamu.backend.util.CompressedText;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.PostLoad;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Reads the payload of a blob kept in a segment file when the blob is loaded, without copying it out of the mapping
+ * of a sealed segment.
+ */
+@Component
+public class ContentBlobListener {
+    @Autowired
+    private BlobStore blobStore;
+
+    @PostLoad
+    public void loadSegmentPayload(ContentBlob blob) {
+        SegmentStore.Location location = blob.getSegmentLocation();
+        if (location == null || blob.getPayload() != null) {
+            return;
+        }
+        try {
+            blob.setSegmentPayload(CompressedText.wrap(blobStore.readSegment(blob.getHash(), location)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.github.freenamu.backend.storage;
+
+import com.github.freenamu.backend.entity.ContentBlob;
+import com.github.freenamu.backend.util.CompressedText;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+@Component
+@ConditionalOnProperty(name = "freenamu.revision.store", havingValue = "database", matchIfMissing = true)
+public class DatabaseBlobStore implements BlobStore {
+    @Override
+    public ContentBlob create(String hash, CompressedText payload) {
+        return new ContentBlob(hash, payload);
+    }
+
+    @Override
+    public InputStream openSegment(String hash, SegmentStore.Location location) {
+        throw notSegmentStore(hash, location);
+    }
+
+    @Override
+    public ByteBuffer readSegment(String hash, SegmentStore.Location location) {
+        throw notSegmentStore(hash, location);
+    }
+
+    private static IllegalStateException notSegmentStore(String hash, SegmentStore.Location location) {
+        return new IllegalStateException("blob " + hash + " is in segment " + location.getSegment() + " but freenamu.revision.store is not segment");
+    }
+}
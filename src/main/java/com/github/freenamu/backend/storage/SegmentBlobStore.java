@@ -0,0 +1,136 @@
+package com.github.freenamu.backend.storage;
+
+import com.github.freenamu.backend.entity.ContentBlob;
+import com.github.freenamu.backend.util.CompressedText;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Appends new revision bodies to segment files and keeps only their location in the database.
+ * <p>
+ * A record is forced to disk right before the transaction that points at it commits, once per transaction, so a
+ * committed row never points at a record lost in a crash. Records of rolled back transactions are left behind for
+ * {@link SegmentCompactor} to drop. Until a transaction completes, its segments count as having pending writes, since
+ * other transactions cannot see the rows pointing at its records yet.
+ */
+@Component
+@ConditionalOnProperty(name = "freenamu.revision.store", havingValue = "segment")
+public class SegmentBlobStore implements BlobStore {
+    private final Map<Integer, Integer> pendingWrites = new HashMap<>();
+
+    @Value("${freenamu.revision.segment.path:./segments}")
+    private String path;
+
+    @Value("${freenamu.revision.segment.max-size:268435456}")
+    private long maxSegmentSize;
+
+    private SegmentStore segmentStore;
+
+    @PostConstruct
+    public void open() throws IOException {
+        segmentStore = new SegmentStore(Paths.get(path), maxSegmentSize);
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        segmentStore.close();
+    }
+
+    public SegmentStore getSegmentStore() {
+        return segmentStore;
+    }
+
+    @Override
+    public ContentBlob create(String hash, CompressedText payload) {
+        try {
+            SegmentStore.Location location;
+            synchronized (this) {
+                location = segmentStore.append(hash, payload.getBytes());
+                addPendingWrite(location.getSegment());
+            }
+            if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+                segmentStore.force();
+            }
+            return new ContentBlob(hash, location, payload);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public InputStream openSegment(String hash, SegmentStore.Location location) throws IOException {
+        return segmentStore.openStream(location, hash);
+    }
+
+    @Override
+    public ByteBuffer readSegment(String hash, SegmentStore.Location location) throws IOException {
+        return segmentStore.read(location, hash);
+    }
+
+    /**
+     * Tells whether transactions other than the current one have appended to the segment and not completed yet.
+     */
+    public synchronized boolean hasPendingWrites(int segment) {
+        Map<Integer, Integer> ownWrites = getTransactionWrites();
+        int own = ownWrites == null ? 0 : ownWrites.getOrDefault(segment, 0);
+        return pendingWrites.getOrDefault(segment, 0) > own;
+    }
+
+    /**
+     * Counts the write against the segment until the transaction completes, and forces the segment store to disk
+     * once before the transaction commits.
+     */
+    private void addPendingWrite(int segment) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        Map<Integer, Integer> transactionWrites = getTransactionWrites();
+        if (transactionWrites == null) {
+            Map<Integer, Integer> writes = new HashMap<>();
+            TransactionSynchronizationManager.bindResource(this, writes);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    try {
+                        segmentStore.force();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResource(SegmentBlobStore.this);
+                    removePendingWrites(writes);
+                }
+            });
+            transactionWrites = writes;
+        }
+        transactionWrites.merge(segment, 1, Integer::sum);
+        pendingWrites.merge(segment, 1, Integer::sum);
+    }
+
+    private synchronized void removePendingWrites(Map<Integer, Integer> writes) {
+        for (Map.Entry<Integer, Integer> entry : writes.entrySet()) {
+            pendingWrites.computeIfPresent(entry.getKey(), (segment, count) -> count.equals(entry.getValue()) ? null : count - entry.getValue());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Integer, Integer> getTransactionWrites() {
+        return (Map<Integer, Integer>) TransactionSynchronizationManager.getResource(this);
+    }
+}
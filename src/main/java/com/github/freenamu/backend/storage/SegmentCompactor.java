@@ -0,0 +1,67 @@
+package com.github.freenamu.backend.storage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rewrites sealed segments whose live records take less than {@code compact-threshold} of their size.
+ * <p>
+ * A record is live while a blob row points at it. Live records are copied to the active segment and forced to disk
+ * before their rows are moved, each row only if it still points at the old record, and the old segment is retired
+ * once all of its rows have moved. Segments with writes of uncommitted transactions are skipped, since the rows
+ * pointing at those records are not visible yet.
+ */
+@Component
+@ConditionalOnProperty(name = "freenamu.revision.store", havingValue = "segment")
+public class SegmentCompactor {
+    private static final Logger logger = LoggerFactory.getLogger(SegmentCompactor.class);
+
+    @Autowired
+    private SegmentBlobStore segmentBlobStore;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${freenamu.revision.segment.compact-threshold:0.5}")
+    private double compactThreshold;
+
+    public synchronized int compact() throws IOException {
+        SegmentStore segmentStore = segmentBlobStore.getSegmentStore();
+        int compacted = 0;
+        for (int segment : segmentStore.getSealedSegmentIds()) {
+            if (segmentBlobStore.hasPendingWrites(segment)) {
+                continue;
+            }
+            List<Map<String, Object>> records = jdbcTemplate.queryForList("select hash, segment_offset, segment_length from content_blob where segment = ?", segment);
+            long liveSize = 0;
+            for (Map<String, Object> record : records) {
+                liveSize += ((Number) record.get("segment_length")).intValue() + SegmentStore.getRecordOverhead();
+            }
+            long size = segmentStore.getSegmentSize(segment);
+            if (liveSize >= size * compactThreshold) {
+                continue;
+            }
+            for (Map<String, Object> record : records) {
+                String hash = (String) record.get("hash");
+                SegmentStore.Location from = new SegmentStore.Location(segment, ((Number) record.get("segment_offset")).longValue(), ((Number) record.get("segment_length")).intValue());
+                SegmentStore.Location to = segmentStore.append(hash, segmentStore.readBytes(from, hash));
+                segmentStore.force();
+                jdbcTemplate.update("update content_blob set segment = ?, segment_offset = ?, segment_length = ? where hash = ? and segment = ? and segment_offset = ?",
+                        to.getSegment(), to.getOffset(), to.getLength(), hash, from.getSegment(), from.getOffset());
+            }
+            segmentStore.retire(segment);
+            compacted++;
+            logger.info("compacted segment {}, kept {} of {} bytes", segment, liveSize, size);
+        }
+        return compacted;
+    }
+}
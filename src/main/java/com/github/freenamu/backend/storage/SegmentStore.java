@@ -0,0 +1,327 @@
+package com.github.freenamu.backend.storage;
+
+import com.github.freenamu.backend.util.ByteBufferInputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only files of checksummed records, each holding the payload of one blob.
+ * <p>
+ * A record is a magic number, the 64 hex digits of the blob hash, the payload length, the payload and a CRC-32 of the
+ * hash and payload. Records are appended to the active segment until it would grow past {@code maxSegmentSize}, when
+ * it is forced to disk, sealed and memory-mapped, so reads from sealed segments are slices of the mapping. Opening the
+ * store truncates a torn record left at the end of the active segment by a crash. Callers keep the location of each
+ * record; records nobody points at any more are dropped when their segment is {@link #retire(int) retired} after
+ * compaction.
+ */
+public class SegmentStore implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(SegmentStore.class);
+    private static final int MAGIC = 0x464e5347;
+    private static final int HASH_LENGTH = 64;
+    private static final int HEADER_SIZE = 4 + HASH_LENGTH + 4;
+    private static final int TRAILER_SIZE = 4;
+    private static final Pattern SEGMENT_FILE_NAME = Pattern.compile("segment-(\\d{8})\\.dat");
+
+    private final Path directory;
+    private final long maxSegmentSize;
+    private final Map<Integer, Segment> segments = new ConcurrentHashMap<>();
+    private final Map<Integer, Segment> retiredSegments = new ConcurrentHashMap<>();
+    private Segment active;
+
+    public SegmentStore(Path directory, long maxSegmentSize) throws IOException {
+        if (maxSegmentSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("segments must be smaller than 2GB to be mapped");
+        }
+        this.directory = directory;
+        this.maxSegmentSize = maxSegmentSize;
+        Files.createDirectories(directory);
+        List<Integer> ids = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(file -> {
+                Matcher matcher = SEGMENT_FILE_NAME.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    ids.add(Integer.parseInt(matcher.group(1)));
+                }
+            });
+        }
+        ids.sort(null);
+        for (int i = 0; i < ids.size(); i++) {
+            Segment segment = new Segment(ids.get(i), getPath(ids.get(i)));
+            segments.put(segment.id, segment);
+            if (i == ids.size() - 1) {
+                segment.recover();
+                active = segment;
+            } else {
+                segment.seal();
+            }
+        }
+        if (active == null) {
+            active = createSegment(1);
+        }
+    }
+
+    /**
+     * Appends a record and returns its location. The record is durable only after {@link #force()}.
+     */
+    public synchronized Location append(String hash, byte[] payload) throws IOException {
+        byte[] hashBytes = hash.getBytes(StandardCharsets.US_ASCII);
+        if (hashBytes.length != HASH_LENGTH) {
+            throw new IllegalArgumentException("hash must be " + HASH_LENGTH + " hex digits");
+        }
+        long recordSize = (long) HEADER_SIZE + payload.length + TRAILER_SIZE;
+        if (recordSize > maxSegmentSize) {
+            throw new IllegalArgumentException("payload is larger than a segment");
+        }
+        if (active.size + recordSize > maxSegmentSize) {
+            active.channel.force(false);
+            active.seal();
+            active = createSegment(active.id + 1);
+        }
+        ByteBuffer record = ByteBuffer.allocate((int) recordSize);
+        record.putInt(MAGIC).put(hashBytes).putInt(payload.length).put(payload).putInt(checksum(hashBytes, payload));
+        record.flip();
+        long position = active.size;
+        while (record.hasRemaining()) {
+            position += active.channel.write(record, position);
+        }
+        Location location = new Location(active.id, active.size + HEADER_SIZE, payload.length);
+        active.size = position;
+        return location;
+    }
+
+    public synchronized void force() throws IOException {
+        active.channel.force(false);
+    }
+
+    /**
+     * Returns the payload at the location after checking its record, as a read-only slice of the mapping when the
+     * segment is sealed.
+     */
+    public ByteBuffer read(Location location, String hash) throws IOException {
+        Segment segment = segments.get(location.getSegment());
+        if (segment == null) {
+            segment = retiredSegments.get(location.getSegment());
+        }
+        if (segment == null) {
+            throw new IllegalStateException("segment " + location.getSegment() + " does not exist");
+        }
+        ByteBuffer record = segment.readRecord(location.getOffset() - HEADER_SIZE, HEADER_SIZE + location.getLength() + TRAILER_SIZE);
+        if (record.getInt(0) != MAGIC || record.getInt(HEADER_SIZE - 4) != location.getLength()) {
+            throw new IllegalStateException("no record at " + location);
+        }
+        byte[] hashBytes = new byte[HASH_LENGTH];
+        record.duplicate().position(4).get(hashBytes);
+        if (hash != null && !hash.equals(new String(hashBytes, StandardCharsets.US_ASCII))) {
+            throw new IllegalStateException("record at " + location + " belongs to another blob");
+        }
+        ByteBuffer payload = record.duplicate().position(HEADER_SIZE).limit(HEADER_SIZE + location.getLength()).slice();
+        if (checksum(hashBytes, payload.duplicate()) != record.getInt(HEADER_SIZE + location.getLength())) {
+            throw new IllegalStateException("checksum mismatch at " + location);
+        }
+        return payload.asReadOnlyBuffer();
+    }
+
+    public byte[] readBytes(Location location, String hash) throws IOException {
+        ByteBuffer payload = read(location, hash);
+        byte[] result = new byte[payload.remaining()];
+        payload.get(result);
+        return result;
+    }
+
+    public InputStream openStream(Location location, String hash) throws IOException {
+        return new ByteBufferInputStream(read(location, hash));
+    }
+
+    public List<Integer> getSealedSegmentIds() {
+        List<Integer> result = new ArrayList<>();
+        for (Segment segment : segments.values()) {
+            if (segment.mapping != null) {
+                result.add(segment.id);
+            }
+        }
+        result.sort(null);
+        return result;
+    }
+
+    public long getSegmentSize(int id) {
+        Segment segment = segments.get(id);
+        return segment == null ? 0 : segment.size;
+    }
+
+    public int getSegmentCount() {
+        return segments.size();
+    }
+
+    public static int getRecordOverhead() {
+        return HEADER_SIZE + TRAILER_SIZE;
+    }
+
+    public long getTotalSize() {
+        long result = 0;
+        for (Segment segment : segments.values()) {
+            result += segment.size;
+        }
+        return result;
+    }
+
+    /**
+     * Deletes a sealed segment whose live records have been copied elsewhere. Its mapping stays readable until the
+     * next call, for readers that looked up a location before it moved.
+     */
+    public synchronized void retire(int id) throws IOException {
+        Segment segment = segments.get(id);
+        if (segment == null || segment == active) {
+            throw new IllegalArgumentException("segment " + id + " cannot be retired");
+        }
+        for (Segment retired : retiredSegments.values()) {
+            retired.channel.close();
+        }
+        retiredSegments.clear();
+        segments.remove(id);
+        retiredSegments.put(id, segment);
+        Files.delete(segment.path);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        active.channel.force(false);
+        for (Segment segment : segments.values()) {
+            segment.channel.close();
+        }
+        for (Segment segment : retiredSegments.values()) {
+            segment.channel.close();
+        }
+    }
+
+    private Segment createSegment(int id) throws IOException {
+        Segment segment = new Segment(id, getPath(id));
+        segments.put(id, segment);
+        return segment;
+    }
+
+    private Path getPath(int id) {
+        return directory.resolve(String.format("segment-%08d.dat", id));
+    }
+
+    private static int checksum(byte[] hash, byte[] payload) {
+        return checksum(hash, ByteBuffer.wrap(payload));
+    }
+
+    private static int checksum(byte[] hash, ByteBuffer payload) {
+        CRC32 crc = new CRC32();
+        crc.update(hash);
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    public static class Location {
+        private final int segment;
+        private final long offset;
+        private final int length;
+
+        public Location(int segment, long offset, int length) {
+            this.segment = segment;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        public int getSegment() {
+            return segment;
+        }
+
+        public long getOffset() {
+            return offset;
+        }
+
+        public int getLength() {
+            return length;
+        }
+
+        @Override
+        public String toString() {
+            return segment + ":" + offset + "+" + length;
+        }
+    }
+
+    private static class Segment {
+        private final int id;
+        private final Path path;
+        private final FileChannel channel;
+        private volatile long size;
+        private volatile MappedByteBuffer mapping;
+
+        private Segment(int id, Path path) throws IOException {
+            this.id = id;
+            this.path = path;
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.size = channel.size();
+        }
+
+        private void seal() throws IOException {
+            mapping = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+
+        private ByteBuffer readRecord(long position, int length) throws IOException {
+            if (position < 0 || position + length > size) {
+                throw new IllegalStateException("record at " + position + " is outside segment " + id);
+            }
+            MappedByteBuffer mapped = mapping;
+            if (mapped != null) {
+                return mapped.duplicate().position((int) position).limit((int) position + length).slice();
+            }
+            ByteBuffer result = ByteBuffer.allocate(length);
+            while (result.hasRemaining()) {
+                if (channel.read(result, position + result.position()) < 0) {
+                    throw new IllegalStateException("record at " + position + " is outside segment " + id);
+                }
+            }
+            return result.flip();
+        }
+
+        private void recover() throws IOException {
+            long end = 0;
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            while (end + HEADER_SIZE + TRAILER_SIZE <= size) {
+                header.clear();
+                channel.read(header, end);
+                int length = header.getInt(HEADER_SIZE - 4);
+                if (header.getInt(0) != MAGIC || length < 0 || end + HEADER_SIZE + length + TRAILER_SIZE > size) {
+                    break;
+                }
+                ByteBuffer record = readRecord(end, HEADER_SIZE + length + TRAILER_SIZE);
+                byte[] hashBytes = new byte[HASH_LENGTH];
+                record.duplicate().position(4).get(hashBytes);
+                ByteBuffer payload = record.duplicate().position(HEADER_SIZE).limit(HEADER_SIZE + length);
+                if (checksum(hashBytes, payload) != record.getInt(HEADER_SIZE + length)) {
+                    break;
+                }
+                end += HEADER_SIZE + length + TRAILER_SIZE;
+            }
+            if (end < size) {
+                logger.warn("truncating {} bytes of incomplete records at the end of {}", size - end, path);
+                channel.truncate(end);
+                channel.force(true);
+                size = end;
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.github.freenamu.backend.storage;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Component
+@ConditionalOnProperty(name = "freenamu.revision.store", havingValue = "segment")
+@Endpoint(id = "segments")
+public class SegmentStoreEndpoint {
+    @Autowired
+    private SegmentBlobStore segmentBlobStore;
+
+    @Autowired
+    private SegmentCompactor segmentCompactor;
+
+    @ReadOperation
+    public Map<String, Object> getStatistics() {
+        SegmentStore segmentStore = segmentBlobStore.getSegmentStore();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("segments", segmentStore.getSegmentCount());
+        result.put("sealedSegments", segmentStore.getSealedSegmentIds().size());
+        result.put("totalSize", segmentStore.getTotalSize());
+        return result;
+    }
+
+    @WriteOperation
+    public Map<String, Object> compact() throws IOException {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("compactedSegments", segmentCompactor.compact());
+        return result;
+    }
+}
@@ -0,0 +1,90 @@
+package com.github.freenamu.backend.util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * UTF-8 text stored behind a one-byte {@link TextCodec} id, so rows written with different codecs can live side by side.
+ * Decoding happens only when {@link #decode()} is called.
+ */
+public final class CompressedText {
+    private static final int MIN_COMPRESSED_SIZE = 64;
+
+    private final byte[] bytes;
+    private final ByteBuffer buffer;
+
+    private CompressedText(byte[] bytes, ByteBuffer buffer) {
+        this.bytes = bytes;
+        this.buffer = buffer;
+    }
+
+    public static CompressedText encode(String text, TextCodec codec) {
+        byte[] raw = text.getBytes(StandardCharsets.UTF_8);
+        byte[] data = raw;
+        if (codec != TextCodec.NONE && raw.length >= MIN_COMPRESSED_SIZE) {
+            byte[] compressed = codec.compress(raw);
+            if (compressed.length < raw.length) {
+                data = compressed;
+            } else {
+                codec = TextCodec.NONE;
+            }
+        } else {
+            codec = TextCodec.NONE;
+        }
+        byte[] result = new byte[data.length + 1];
+        result[0] = codec.getId();
+        System.arraycopy(data, 0, result, 1, data.length);
+        return new CompressedText(result, null);
+    }
+
+    public static CompressedText wrap(byte[] bytes) {
+        return new CompressedText(bytes, null);
+    }
+
+    /**
+     * Wraps the remaining bytes of a buffer that is never written to, such as a slice of a mapped segment file, and
+     * decodes from it in place instead of copying it first.
+     */
+    public static CompressedText wrap(ByteBuffer buffer) {
+        return new CompressedText(null, buffer.slice());
+    }
+
+    public byte[] getBytes() {
+        if (bytes != null) {
+            return bytes;
+        }
+        byte[] result = new byte[buffer.remaining()];
+        buffer.duplicate().get(result);
+        return result;
+    }
+
+    public TextCodec getCodec() {
+        return TextCodec.of(bytes != null ? bytes[0] : buffer.get(0));
+    }
+
+    public String decode() {
+        TextCodec codec = getCodec();
+        if (bytes == null) {
+            ByteBuffer data = buffer.duplicate().position(1);
+            if (codec == TextCodec.NONE) {
+                return StandardCharsets.UTF_8.decode(data).toString();
+            }
+            return new String(codec.decompress(data), StandardCharsets.UTF_8);
+        }
+        if (codec == TextCodec.NONE) {
+            return new String(bytes, 1, bytes.length - 1, StandardCharsets.UTF_8);
+        }
+        return new String(codec.decompress(bytes, 1, bytes.length - 1), StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof CompressedText && Arrays.equals(getBytes(), ((CompressedText) o).getBytes());
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(getBytes());
+    }
+}
@@ -0,0 +1,42 @@
+package com.github.freenamu.backend.util;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Passes through only the bytes at positions {@code [offset, offset + length)} of what is written to it.
+ */
+public class RangeOutputStream extends FilterOutputStream {
+    private final long start;
+    private final long end;
+    private long position;
+
+    public RangeOutputStream(OutputStream out, long offset, long length) {
+        super(out);
+        this.start = offset;
+        this.end = offset + length;
+    }
+
+    public boolean isComplete() {
+        return position >= end;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        if (start <= position && position < end) {
+            out.write(b);
+        }
+        position++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        long from = Math.max(position, start);
+        long to = Math.min(position + len, end);
+        if (from < to) {
+            out.write(b, off + (int) (from - position), (int) (to - from));
+        }
+        position += len;
+    }
+}
@@ -0,0 +1,45 @@
+package com.github.freenamu.backend.util;
+
+/**
+ * A delta between two texts, stored as the length of their common prefix, the length of their
+ * common suffix and the text that replaces everything in between: {@code prefix:suffix:middle}.
+ * Wiki edits are usually local, so this is small for most revisions and both directions are linear.
+ * The prefix and suffix never end or start inside a surrogate pair, so the middle is always valid UTF-16.
+ */
+public final class TextDelta {
+    private static final char SEPARATOR = ':';
+
+    private TextDelta() {
+    }
+
+    public static String encode(String from, String to) {
+        int limit = Math.min(from.length(), to.length());
+        int prefix = 0;
+        while (prefix < limit && from.charAt(prefix) == to.charAt(prefix)) {
+            prefix++;
+        }
+        if (prefix > 0 && Character.isHighSurrogate(from.charAt(prefix - 1))) {
+            prefix--;
+        }
+        int suffix = 0;
+        while (suffix < limit - prefix && from.charAt(from.length() - 1 - suffix) == to.charAt(to.length() - 1 - suffix)) {
+            suffix++;
+        }
+        if (suffix > 0 && Character.isLowSurrogate(from.charAt(from.length() - suffix))) {
+            suffix--;
+        }
+        return prefix + String.valueOf(SEPARATOR) + suffix + SEPARATOR + to.substring(prefix, to.length() - suffix);
+    }
+
+    public static String apply(String base, String delta) {
+        int first = delta.indexOf(SEPARATOR);
+        int second = delta.indexOf(SEPARATOR, first + 1);
+        int prefix = Integer.parseInt(delta.substring(0, first));
+        int suffix = Integer.parseInt(delta.substring(first + 1, second));
+        return new StringBuilder(prefix + delta.length() - second - 1 + suffix)
+                .append(base, 0, prefix)
+                .append(delta, second + 1, delta.length())
+                .append(base, base.length() - suffix, base.length())
+                .toString();
+    }
+}
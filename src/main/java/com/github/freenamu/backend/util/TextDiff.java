@@ -0,0 +1,251 @@
+package com.github.freenamu.backend.util;
+
+import com.github.freenamu.backend.vo.Diff;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Line or word diff using Myers' linear space bisection.
+ * <p>
+ * The search is bounded by {@code maxCost} steps; once they are spent, the remaining unresolved regions are reported
+ * as a plain delete and insert. Unchanged runs are reduced to a few tokens of context around each change, and output
+ * stops after {@code maxOutputLength} characters with the diff marked as truncated.
+ */
+public class TextDiff {
+    private static final Pattern WORD_BOUNDARY = Pattern.compile("(?<=\\s)(?=\\S)|(?<=\\S)(?=\\s)");
+
+    public enum Unit {
+        LINE(3), WORD(10);
+
+        private final int context;
+
+        Unit(int context) {
+            this.context = context;
+        }
+
+        public static Unit of(String name) throws IllegalArgumentException {
+            return valueOf(name.toUpperCase(Locale.ROOT));
+        }
+    }
+
+    private final Unit unit;
+    private final int maxOutputLength;
+    private long budget;
+    private int[] a;
+    private int[] b;
+    private boolean[] deleted;
+    private boolean[] inserted;
+
+    public TextDiff(Unit unit, long maxCost, int maxOutputLength) {
+        this.unit = unit;
+        this.budget = maxCost;
+        this.maxOutputLength = maxOutputLength;
+    }
+
+    public void diff(String from, String to, Diff result) {
+        List<String> fromTokens = tokenize(from);
+        List<String> toTokens = tokenize(to);
+        Map<String, Integer> ids = new HashMap<>();
+        a = toIds(fromTokens, ids);
+        b = toIds(toTokens, ids);
+        deleted = new boolean[a.length];
+        inserted = new boolean[b.length];
+        compare(0, a.length, 0, b.length);
+        new Writer(fromTokens, toTokens, result).write();
+    }
+
+    List<String> tokenize(String text) {
+        if (unit == Unit.WORD) {
+            return text.isEmpty() ? List.of() : Arrays.asList(WORD_BOUNDARY.split(text));
+        }
+        List<String> lines = new ArrayList<>();
+        int start = 0;
+        int end;
+        while ((end = text.indexOf('\n', start)) >= 0) {
+            lines.add(text.substring(start, end + 1));
+            start = end + 1;
+        }
+        if (start < text.length()) {
+            lines.add(text.substring(start));
+        }
+        return lines;
+    }
+
+    private static int[] toIds(List<String> tokens, Map<String, Integer> ids) {
+        int[] result = new int[tokens.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = ids.computeIfAbsent(tokens.get(i), token -> ids.size());
+        }
+        return result;
+    }
+
+    private void compare(int aStart, int aEnd, int bStart, int bEnd) {
+        while (aStart < aEnd && bStart < bEnd && a[aStart] == b[bStart]) {
+            aStart++;
+            bStart++;
+        }
+        while (aStart < aEnd && bStart < bEnd && a[aEnd - 1] == b[bEnd - 1]) {
+            aEnd--;
+            bEnd--;
+        }
+        if (aStart == aEnd || bStart == bEnd || budget <= 0) {
+            Arrays.fill(deleted, aStart, aEnd, true);
+            Arrays.fill(inserted, bStart, bEnd, true);
+            return;
+        }
+        int[] split = bisect(aStart, aEnd, bStart, bEnd);
+        if (split == null) {
+            Arrays.fill(deleted, aStart, aEnd, true);
+            Arrays.fill(inserted, bStart, bEnd, true);
+            return;
+        }
+        compare(aStart, split[0], bStart, split[1]);
+        compare(split[0], aEnd, split[1], bEnd);
+    }
+
+    private int[] bisect(int aStart, int aEnd, int bStart, int bEnd) {
+        int n = aEnd - aStart;
+        int m = bEnd - bStart;
+        int maxD = (n + m + 1) / 2;
+        int offset = maxD;
+        int length = 2 * maxD + 2;
+        int[] forward = new int[length];
+        int[] backward = new int[length];
+        Arrays.fill(forward, -1);
+        Arrays.fill(backward, -1);
+        forward[offset + 1] = 0;
+        backward[offset + 1] = 0;
+        int delta = n - m;
+        boolean front = delta % 2 != 0;
+        int k1Start = 0;
+        int k1End = 0;
+        int k2Start = 0;
+        int k2End = 0;
+        for (int d = 0; d < maxD && budget > 0; d++) {
+            for (int k1 = -d + k1Start; k1 <= d - k1End; k1 += 2) {
+                int k1Offset = offset + k1;
+                int x1 = k1 == -d || (k1 != d && forward[k1Offset - 1] < forward[k1Offset + 1]) ? forward[k1Offset + 1] : forward[k1Offset - 1] + 1;
+                int y1 = x1 - k1;
+                int x1Start = x1;
+                while (x1 < n && y1 < m && a[aStart + x1] == b[bStart + y1]) {
+                    x1++;
+                    y1++;
+                }
+                budget -= 1 + x1 - x1Start;
+                forward[k1Offset] = x1;
+                if (x1 > n) {
+                    k1End += 2;
+                } else if (y1 > m) {
+                    k1Start += 2;
+                } else if (front) {
+                    int k2Offset = offset + delta - k1;
+                    if (k2Offset >= 0 && k2Offset < length && backward[k2Offset] != -1 && x1 >= n - backward[k2Offset]) {
+                        return new int[]{aStart + x1, bStart + y1};
+                    }
+                }
+            }
+            for (int k2 = -d + k2Start; k2 <= d - k2End; k2 += 2) {
+                int k2Offset = offset + k2;
+                int x2 = k2 == -d || (k2 != d && backward[k2Offset - 1] < backward[k2Offset + 1]) ? backward[k2Offset + 1] : backward[k2Offset - 1] + 1;
+                int y2 = x2 - k2;
+                int x2Start = x2;
+                while (x2 < n && y2 < m && a[aEnd - x2 - 1] == b[bEnd - y2 - 1]) {
+                    x2++;
+                    y2++;
+                }
+                budget -= 1 + x2 - x2Start;
+                backward[k2Offset] = x2;
+                if (x2 > n) {
+                    k2End += 2;
+                } else if (y2 > m) {
+                    k2Start += 2;
+                } else if (!front) {
+                    int k1Offset = offset + delta - k2;
+                    if (k1Offset >= 0 && k1Offset < length && forward[k1Offset] != -1) {
+                        int x1 = forward[k1Offset];
+                        int y1 = offset + x1 - k1Offset;
+                        if (x1 >= n - x2) {
+                            return new int[]{aStart + x1, bStart + y1};
+                        }
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    private class Writer {
+        private final List<String> fromTokens;
+        private final List<String> toTokens;
+        private final Diff result;
+        private int outputLength;
+
+        private Writer(List<String> fromTokens, List<String> toTokens, Diff result) {
+            this.fromTokens = fromTokens;
+            this.toTokens = toTokens;
+            this.result = result;
+        }
+
+        private void write() {
+            int i = 0;
+            int j = 0;
+            while ((i < a.length || j < b.length) && !result.isTruncated()) {
+                if (i < a.length && deleted[i]) {
+                    int start = i;
+                    while (i < a.length && deleted[i]) {
+                        i++;
+                    }
+                    add(Diff.Type.DELETE, fromTokens, start, i);
+                } else if (j < b.length && inserted[j]) {
+                    int start = j;
+                    while (j < b.length && inserted[j]) {
+                        j++;
+                    }
+                    add(Diff.Type.INSERT, toTokens, start, j);
+                } else {
+                    int start = i;
+                    while (i < a.length && j < b.length && !deleted[i] && !inserted[j]) {
+                        i++;
+                        j++;
+                    }
+                    addEqual(start, i, start == 0 && j == i, i == a.length && j == b.length);
+                }
+            }
+        }
+
+        private void addEqual(int start, int end, boolean first, boolean last) {
+            int head = first ? 0 : Math.min(unit.context, end - start);
+            int tail = last ? 0 : Math.min(unit.context, end - start - head);
+            if (head > 0) {
+                add(Diff.Type.EQUAL, fromTokens, start, start + head);
+            }
+            if (end - start - head - tail > 0) {
+                result.getEdits().add(new Diff.Edit(end - start - head - tail));
+            }
+            if (tail > 0) {
+                add(Diff.Type.EQUAL, fromTokens, end - tail, end);
+            }
+        }
+
+        private void add(Diff.Type type, List<String> tokens, int start, int end) {
+            StringBuilder text = new StringBuilder();
+            for (int i = start; i < end && outputLength + text.length() <= maxOutputLength; i++) {
+                text.append(tokens.get(i));
+            }
+            if (outputLength + text.length() > maxOutputLength) {
+                text.setLength(Math.max(0, maxOutputLength - outputLength));
+                result.setTruncated(true);
+            }
+            outputLength += text.length();
+            if (text.length() > 0) {
+                result.getEdits().add(new Diff.Edit(type, text.toString()));
+            }
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.github.freenamu.backend.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+public final class TextHash {
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private TextHash() {
+    }
+
+    /**
+     * Returns the SHA-256 of the UTF-8 encoding of the text as 64 lowercase hex digits.
+     */
+    public static String sha256(String text) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        byte[] hash = digest.digest(text.getBytes(StandardCharsets.UTF_8));
+        char[] result = new char[hash.length * 2];
+        for (int i = 0; i < hash.length; i++) {
+            result[i * 2] = HEX_DIGITS[(hash[i] >> 4) & 0xf];
+            result[i * 2 + 1] = HEX_DIGITS[hash[i] & 0xf];
+        }
+        return new String(result);
+    }
+}
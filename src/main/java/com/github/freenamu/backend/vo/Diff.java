@@ -0,0 +1,73 @@
+package com.github.freenamu.backend.vo;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class Diff {
+    private final int from;
+    private final int to;
+    private final List<Edit> edits = new ArrayList<>();
+    private boolean truncated;
+
+    public Diff(int from, int to) {
+        this.from = from;
+        this.to = to;
+    }
+
+    public int getFrom() {
+        return from;
+    }
+
+    public int getTo() {
+        return to;
+    }
+
+    public List<Edit> getEdits() {
+        return edits;
+    }
+
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    public void setTruncated(boolean truncated) {
+        this.truncated = truncated;
+    }
+
+    public enum Type {
+        EQUAL, DELETE, INSERT, SKIP
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Edit {
+        private final Type type;
+        private final String text;
+        private final Integer skipped;
+
+        public Edit(Type type, String text) {
+            this.type = type;
+            this.text = text;
+            this.skipped = null;
+        }
+
+        public Edit(int skipped) {
+            this.type = Type.SKIP;
+            this.text = null;
+            this.skipped = skipped;
+        }
+
+        public Type getType() {
+            return type;
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        public Integer getSkipped() {
+            return skipped;
+        }
+    }
+}
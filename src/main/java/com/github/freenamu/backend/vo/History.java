@@ -1,5 +1,6 @@
 package com.github.freenamu.backend.vo;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.github.freenamu.backend.entity.Content;
 
 import java.time.LocalDateTime;
@@ -9,6 +10,14 @@ import java.util.List;
 public class History {
     private final List<Row> rows = new ArrayList<>();
     private int revisionIndex = 1;
+    private Integer nextCursor;
+
+    public History() {
+    }
+
+    public History(List<Row> rows) {
+        this.rows.addAll(rows);
+    }
 
     private int getNextRevisionIndex() {
         return revisionIndex++;
@@ -18,6 +27,15 @@ public class History {
         return rows;
     }
 
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public Integer getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(Integer nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
     public Row get(int i) {
         return rows.get(i);
     }
@@ -28,7 +46,7 @@ public class History {
         row.setComment(content.getComment());
         row.setContributor(content.getContributor());
         row.setCreateDate(content.getCreateDate());
-        row.setLength(content.getContentBody().length());
+        row.setLength(content.getLength());
         rows.add(row);
     }
 
@@ -39,6 +57,17 @@ public class History {
         private LocalDateTime createDate;
         private int length;
 
+        public Row() {
+        }
+
+        public Row(int revisionIndex, String comment, String contributor, LocalDateTime createDate, int length) {
+            this.revisionIndex = revisionIndex;
+            this.comment = comment;
+            this.contributor = contributor;
+            this.createDate = createDate;
+            this.length = length;
+        }
+
         public int getRevisionIndex() {
             return revisionIndex;
         }
@@ -0,0 +1,31 @@
+package com.github.freenamu.backend.vo;
+
+import java.util.concurrent.TimeUnit;
+
+public class ImportResult {
+    private final long documentCount;
+    private final long revisionCount;
+    private final long elapsedNanos;
+
+    public ImportResult(long documentCount, long revisionCount, long elapsedNanos) {
+        this.documentCount = documentCount;
+        this.revisionCount = revisionCount;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long getDocumentCount() {
+        return documentCount;
+    }
+
+    public long getRevisionCount() {
+        return revisionCount;
+    }
+
+    public long getElapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+    }
+
+    public double getRevisionsPerSecond() {
+        return revisionCount * 1e9 / Math.max(elapsedNanos, 1);
+    }
+}
@@ -0,0 +1,53 @@
+package com.github.freenamu.backend.vo;
+
+import java.time.LocalDateTime;
+
+public class RecentChange {
+    private final long id;
+    private final String documentName;
+    private final int revisionIndex;
+    private final String contributor;
+    private final int length;
+    private final LocalDateTime createDate;
+
+    public RecentChange(String documentName, int revisionIndex, String contributor, int length, LocalDateTime createDate) {
+        this(0, documentName, revisionIndex, contributor, length, createDate);
+    }
+
+    private RecentChange(long id, String documentName, int revisionIndex, String contributor, int length, LocalDateTime createDate) {
+        this.id = id;
+        this.documentName = documentName;
+        this.revisionIndex = revisionIndex;
+        this.contributor = contributor;
+        this.length = length;
+        this.createDate = createDate;
+    }
+
+    public RecentChange withId(long id) {
+        return new RecentChange(id, documentName, revisionIndex, contributor, length, createDate);
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getDocumentName() {
+        return documentName;
+    }
+
+    public int getRevisionIndex() {
+        return revisionIndex;
+    }
+
+    public String getContributor() {
+        return contributor;
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    public LocalDateTime getCreateDate() {
+        return createDate;
+    }
+}
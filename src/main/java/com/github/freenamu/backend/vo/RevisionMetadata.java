@@ -0,0 +1,31 @@
+package com.github.freenamu.backend.vo;
+
+public class RevisionMetadata {
+    private final long contentId;
+    private final int revisionIndex;
+    private final int deltaDepth;
+    private final long byteSize;
+
+    public RevisionMetadata(long contentId, int revisionIndex, int deltaDepth, long byteSize) {
+        this.contentId = contentId;
+        this.revisionIndex = revisionIndex;
+        this.deltaDepth = deltaDepth;
+        this.byteSize = byteSize;
+    }
+
+    public long getContentId() {
+        return contentId;
+    }
+
+    public int getRevisionIndex() {
+        return revisionIndex;
+    }
+
+    public int getDeltaDepth() {
+        return deltaDepth;
+    }
+
+    public long getByteSize() {
+        return byteSize;
+    }
+}
@@ -0,0 +1,45 @@
+package com.github.freenamu.backend.vo;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class SearchResult {
+    private final long totalHits;
+    private final List<Hit> hits = new ArrayList<>();
+
+    public SearchResult(long totalHits) {
+        this.totalHits = totalHits;
+    }
+
+    public long getTotalHits() {
+        return totalHits;
+    }
+
+    public List<Hit> getHits() {
+        return hits;
+    }
+
+    public static class Hit {
+        private final String documentName;
+        private final int revisionIndex;
+        private final float score;
+
+        public Hit(String documentName, int revisionIndex, float score) {
+            this.documentName = documentName;
+            this.revisionIndex = revisionIndex;
+            this.score = score;
+        }
+
+        public String getDocumentName() {
+            return documentName;
+        }
+
+        public int getRevisionIndex() {
+            return revisionIndex;
+        }
+
+        public float getScore() {
+            return score;
+        }
+    }
+}
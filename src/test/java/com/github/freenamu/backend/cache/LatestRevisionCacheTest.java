@@ -0,0 +1,91 @@
+package com.github.freenamu.backend.cache;
+
+import com.github.freenamu.backend.entity.Content;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static com.github.freenamu.backend.TestUtil.getAnonymousContent;
+import static com.github.freenamu.backend.TestUtil.getExpectedContent;
+import static com.github.freenamu.backend.TestUtil.getRandomString;
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatestRevisionCacheTest {
+    @Test
+    void evictLeastRecentlyUsedWhenMaxEntriesExceeded() {
+        // Given
+        LatestRevisionCache cache = new LatestRevisionCache(2, Long.MAX_VALUE);
+        putAnonymousContent(cache, "a");
+        putAnonymousContent(cache, "b");
+        cache.get("a");
+
+        // When
+        putAnonymousContent(cache, "c");
+
+        // Then
+        assertNotNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("c"));
+        assertEquals(1, cache.getStatistics().getEvictionCount());
+        assertEquals(3, cache.getStatistics().getHitCount());
+        assertEquals(1, cache.getStatistics().getMissCount());
+    }
+
+    @Test
+    void evictWhenMaxWeightExceeded() {
+        // Given
+        LatestRevisionCache cache = new LatestRevisionCache(100, 3000);
+        cache.put("a", getExpectedContent("a".repeat(1000), "", ""), cache.getToken("a"));
+        cache.put("b", getExpectedContent("b".repeat(1000), "", ""), cache.getToken("b"));
+
+        // When
+        cache.put("c", getExpectedContent("c".repeat(1000), "", ""), cache.getToken("c"));
+
+        // Then
+        assertNull(cache.get("a"));
+        assertEquals(2, cache.getStatistics().getSize());
+        assertTrue(cache.getStatistics().getWeight() <= 3000);
+    }
+
+    @Test
+    void rejectPutWithTokenTakenBeforeInvalidation() {
+        // Given
+        LatestRevisionCache cache = new LatestRevisionCache(100, Long.MAX_VALUE);
+        String documentName = getRandomString();
+        long token = cache.getToken(documentName);
+
+        // When
+        cache.invalidate(documentName);
+        cache.put(documentName, getAnonymousContent(), token);
+
+        // Then
+        assertNull(cache.get(documentName));
+    }
+
+    @Test
+    void rejectPutUntilWriteTransactionCompletes() {
+        // Given
+        LatestRevisionCache cache = new LatestRevisionCache(100, Long.MAX_VALUE);
+        String documentName = getRandomString();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // When
+            cache.invalidateOnWrite(documentName);
+            cache.put(documentName, getAnonymousContent(), cache.getToken(documentName));
+            assertNull(cache.get(documentName));
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        cache.put(documentName, getAnonymousContent(), cache.getToken(documentName));
+
+        // Then
+        assertNotNull(cache.get(documentName));
+    }
+
+    private void putAnonymousContent(LatestRevisionCache cache, String documentName) {
+        cache.put(documentName, getAnonymousContent(), cache.getToken(documentName));
+    }
+}
@@ -1,24 +1,47 @@
 package com.github.freenamu.backend.controller;
 
 import com.github.freenamu.backend.entity.Content;
+import com.github.freenamu.backend.exception.EditConflictException;
 import com.github.freenamu.backend.service.DocumentService;
+import com.github.freenamu.backend.util.TextDiff;
+import com.github.freenamu.backend.vo.Diff;
 import com.github.freenamu.backend.vo.History;
+import com.github.freenamu.backend.vo.RevisionMetadata;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
 import static com.github.freenamu.backend.TestUtil.*;
 import static com.github.freenamu.backend.vo.History.Row;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -26,6 +49,9 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 class DocumentControllerTest {
     private final String getLatestDocumentURLTemplate = "/document/{documentName}/latest/raw";
     private final String getDocumentByRevisionIndexURLTemplate = "/document/{documentName}/{revisionIndex}/raw";
+    private final String getLatestDocumentsURLTemplate = "/documents/latest/raw";
+    private final String getLatestDocumentTextURLTemplate = "/document/{documentName}/latest/text";
+    private final String getDiffURLTemplate = "/document/{documentName}/diff";
     private final String getHistoryOfDocumentURLTemplate = "/document/{documentName}/history";
     private final String postDocumentURLTemplate = "/document/{documentName}";
 
@@ -41,6 +67,7 @@ class DocumentControllerTest {
         String documentName = getRandomString();
         String contentBody = getRandomString();
         String comment = getRandomString();
+        given(documentService.postDocument(eq(documentName), eq(contentBody), eq(comment), anyString(), isNull())).willReturn(true);
 
         // When
         ResultActions resultActions = mockMvc.perform(post(postDocumentURLTemplate, documentName)
@@ -51,6 +78,21 @@ class DocumentControllerTest {
         resultActions.andExpect(status().isOk());
     }
 
+    @Test
+    void returnNoContentWhenPostDocumentWithUnchangedBody() throws Exception {
+        // Given
+        String documentName = getRandomString();
+        String contentBody = getRandomString();
+        given(documentService.postDocument(eq(documentName), eq(contentBody), anyString(), anyString(), isNull())).willReturn(false);
+
+        // When
+        ResultActions resultActions = mockMvc.perform(post(postDocumentURLTemplate, documentName)
+                .param("contentBody", contentBody));
+
+        // Then
+        resultActions.andExpect(status().isNoContent());
+    }
+
     @Test
     void returnBadRequestWhenPostDocumentWithoutContentBody() throws Exception {
         // Given
@@ -70,6 +112,7 @@ class DocumentControllerTest {
         // Given
         String documentName = getRandomString();
         String contentBody = getRandomString();
+        given(documentService.postDocument(eq(documentName), eq(contentBody), eq(""), anyString(), isNull())).willReturn(true);
 
         // When
         ResultActions resultActions = mockMvc.perform(post(postDocumentURLTemplate, documentName)
@@ -77,7 +120,7 @@ class DocumentControllerTest {
 
         // Then
         resultActions.andExpect(status().isOk());
-        verify(documentService).postDocument(eq(documentName), eq(contentBody), eq(""), anyString());
+        verify(documentService).postDocument(eq(documentName), eq(contentBody), eq(""), anyString(), isNull());
     }
 
     @Test
@@ -86,7 +129,7 @@ class DocumentControllerTest {
         String documentName = getRandomString();
         String contentBody = getRandomString();
         String comment = getRandomString(256);
-        doThrow(new IllegalArgumentException()).when(documentService).postDocument(anyString(), anyString(), anyString(), anyString());
+        doThrow(new IllegalArgumentException()).when(documentService).postDocument(anyString(), anyString(), anyString(), anyString(), any());
 
         // When
         ResultActions resultActions = mockMvc.perform(post(postDocumentURLTemplate, documentName)
@@ -97,6 +140,23 @@ class DocumentControllerTest {
         resultActions.andExpect(status().isBadRequest());
     }
 
+    @Test
+    void returnConflictWhenPostDocumentWithStaleBaseRevision() throws Exception {
+        // Given
+        String documentName = getRandomString();
+        String contentBody = getRandomString();
+        int baseRevision = getUniqueNumber();
+        doThrow(new EditConflictException("")).when(documentService).postDocument(eq(documentName), eq(contentBody), anyString(), anyString(), eq(baseRevision));
+
+        // When
+        ResultActions resultActions = mockMvc.perform(post(postDocumentURLTemplate, documentName)
+                .param("contentBody", contentBody)
+                .param("baseRevision", String.valueOf(baseRevision)));
+
+        // Then
+        resultActions.andExpect(status().isConflict());
+    }
+
     @Test
     void returnLatestDocumentWhenGetLatestDocumentWithFullValidInput() throws Exception {
         // Given
@@ -115,6 +175,58 @@ class DocumentControllerTest {
         resultActions.andExpect(jsonPath("contributor").value(expectedContent.getContributor()));
     }
 
+    @Test
+    void returnETagWhenGetLatestDocument() throws Exception {
+        // Given
+        String documentName = getRandomString();
+        Content expectedContent = getAnonymousContent();
+        expectedContent.setRevisionIndex(getUniqueNumber());
+        given(documentService.getLatestDocument(documentName)).willReturn(expectedContent);
+
+        // When
+        ResultActions resultActions = mockMvc.perform(get(getLatestDocumentURLTemplate, documentName));
+
+        // Then
+        resultActions.andExpect(status().isOk());
+        resultActions.andExpect(header().string("ETag", "\"" + expectedContent.getRevisionIndex() + "\""));
+        resultActions.andExpect(header().string("Cache-Control", "no-cache"));
+        verify(documentService, never()).getLatestRevisionIndex(anyString());
+    }
+
+    @Test
+    void returnNotModifiedWhenGetLatestDocumentWithCurrentETag() throws Exception {
+        // Given
+        String documentName = getRandomString();
+        int latestRevisionIndex = getUniqueNumber();
+        given(documentService.getLatestRevisionIndex(documentName)).willReturn(latestRevisionIndex);
+
+        // When
+        ResultActions resultActions = mockMvc.perform(get(getLatestDocumentURLTemplate, documentName)
+                .header("If-None-Match", "\"" + latestRevisionIndex + "\""));
+
+        // Then
+        resultActions.andExpect(status().isNotModified());
+        verify(documentService, never()).getLatestDocument(anyString());
+    }
+
+    @Test
+    void returnLatestDocumentWhenGetLatestDocumentWithStaleETag() throws Exception {
+        // Given
+        String documentName = getRandomString();
+        Content expectedContent = getAnonymousContent();
+        expectedContent.setRevisionIndex(2);
+        given(documentService.getLatestRevisionIndex(documentName)).willReturn(2);
+        given(documentService.getLatestDocument(documentName)).willReturn(expectedContent);
+
+        // When
+        ResultActions resultActions = mockMvc.perform(get(getLatestDocumentURLTemplate, documentName)
+                .header("If-None-Match", "\"1\""));
+
+        // Then
+        resultActions.andExpect(status().isOk());
+        resultActions.andExpect(jsonPath("contentBody").value(expectedContent.getContentBody()));
+    }
+
     @Test
     void returnNotFoundWhenGetLatestDocumentWithNotExistDocument() throws Exception {
         // Given
@@ -147,6 +259,38 @@ class DocumentControllerTest {
         resultActions.andExpect(jsonPath("contributor").value(expectedContent.getContributor()));
     }
 
+    @Test
+    void returnImmutableCacheControlWhenGetDocumentByRevisionIndex() throws Exception {
+        // Given
+        String documentName = getRandomString();
+        int revisionIndex = getUniqueNumber();
+        given(documentService.getDocumentByRevisionIndex(documentName, revisionIndex)).willReturn(getAnonymousContent());
+
+        // When
+        ResultActions resultActions = mockMvc.perform(get(getDocumentByRevisionIndexURLTemplate, documentName, revisionIndex));
+
+        // Then
+        resultActions.andExpect(status().isOk());
+        resultActions.andExpect(header().string("ETag", "\"" + revisionIndex + "\""));
+        resultActions.andExpect(header().string("Cache-Control", "public, max-age=31536000, immutable"));
+    }
+
+    @Test
+    void returnNotModifiedWhenGetDocumentByRevisionIndexWithETag() throws Exception {
+        // Given
+        String documentName = getRandomString();
+        int revisionIndex = 3;
+        given(documentService.getLatestRevisionIndex(documentName)).willReturn(5);
+
+        // When
+        ResultActions resultActions = mockMvc.perform(get(getDocumentByRevisionIndexURLTemplate, documentName, revisionIndex)
+                .header("If-None-Match", "\"" + revisionIndex + "\""));
+
+        // Then
+        resultActions.andExpect(status().isNotModified());
+        verify(documentService, never()).getDocumentByRevisionIndex(anyString(), anyInt());
+    }
+
     @Test
     void returnNotFoundWhenGetDocumentByRevisionIndexWithNotExistDocument() throws Exception {
         // Given
@@ -161,6 +305,67 @@ class DocumentControllerTest {
         resultActions.andExpect(status().isNotFound());
     }
 
+    @Test
+    void returnDiffWhenGetDiffWithFullValidInput() throws Exception {
+        // Given
+        String documentName = getRandomString();
+        Diff diff = new Diff(1, 2);
+        diff.getEdits().add(new Diff.Edit(3));
+        diff.getEdits().add(new Diff.Edit(Diff.Type.INSERT, "inserted"));
+        given(documentService.getDiff(documentName, 1, 2, TextDiff.Unit.WORD)).willReturn(diff);
+
+        // When
+        ResultActions resultActions = mockMvc.perform(get(getDiffURLTemplate, documentName)
+                .param("from", "1")
+                .param("to", "2")
+                .param("unit", "word"));
+
+        // Then
+        resultActions.andExpect(status().isOk());
+        resultActions.andExpect(header().string("Cache-Control", "public, max-age=31536000, immutable"));
+        resultActions.andExpect(jsonPath("truncated").value(false));
+        resultActions.andExpect(jsonPath("edits[0].type").value("SKIP"));
+        resultActions.andExpect(jsonPath("edits[0].skipped").value(3));
+        resultActions.andExpect(jsonPath("edits[0].text").doesNotExist());
+        resultActions.andExpect(jsonPath("edits[1].type").value("INSERT"));
+        resultActions.andExpect(jsonPath("edits[1].text").value("inserted"));
+    }
+
+    @Test
+    void returnBadRequestWhenGetDiffWithInvalidInput() throws Exception {
+        // Given
+        String documentName = getRandomString();
+
+        // When
+        ResultActions unknownUnit = mockMvc.perform(get(getDiffURLTemplate, documentName)
+                .param("from", "1")
+                .param("to", "2")
+                .param("unit", "character"));
+        ResultActions zeroRevision = mockMvc.perform(get(getDiffURLTemplate, documentName)
+                .param("from", "0")
+                .param("to", "2"));
+
+        // Then
+        unknownUnit.andExpect(status().isBadRequest());
+        zeroRevision.andExpect(status().isBadRequest());
+        verify(documentService, never()).getDiff(anyString(), anyInt(), anyInt(), any());
+    }
+
+    @Test
+    void returnNotFoundWhenGetDiffWithNotExistRevision() throws Exception {
+        // Given
+        String documentName = getRandomString();
+        given(documentService.getDiff(documentName, 1, 2, TextDiff.Unit.LINE)).willReturn(null);
+
+        // When
+        ResultActions resultActions = mockMvc.perform(get(getDiffURLTemplate, documentName)
+                .param("from", "1")
+                .param("to", "2"));
+
+        // Then
+        resultActions.andExpect(status().isNotFound());
+    }
+
     @Test
     void returnHistoryOfDocumentWhenGetHistoryOfDocumentWithFullValidInput() throws Exception {
         // Given
@@ -186,6 +391,136 @@ class DocumentControllerTest {
         }
     }
 
+    @Test
+    void returnHistoryPageWhenGetHistoryOfDocumentWithCursor() throws Exception {
+        // Given
+        String documentName = getRandomString();
+        int before = 50;
+        int limit = 10;
+        History expectedHistory = new History();
+        for (int i = 0; i < limit; i++) {
+            expectedHistory.add(getAnonymousContent());
+        }
+        expectedHistory.setNextCursor(before - limit);
+        given(documentService.getHistoryOfDocument(documentName, before, limit)).willReturn(expectedHistory);
+
+        // When
+        ResultActions resultActions = mockMvc.perform(get(getHistoryOfDocumentURLTemplate, documentName)
+                .param("before", String.valueOf(before))
+                .param("limit", String.valueOf(limit)));
+
+        // Then
+        resultActions.andExpect(status().isOk());
+        resultActions.andExpect(jsonPath("rows.length()").value(limit));
+        resultActions.andExpect(jsonPath("nextCursor").value(before - limit));
+    }
+
+    @Test
+    void returnBadRequestWhenGetHistoryOfDocumentWithLimitOutOfRange() throws Exception {
+        // Given
+        String documentName = getRandomString();
+        given(documentService.getHistoryOfDocument(documentName, null, 0)).willThrow(new IllegalArgumentException());
+
+        // When
+        ResultActions resultActions = mockMvc.perform(get(getHistoryOfDocumentURLTemplate, documentName)
+                .param("limit", "0"));
+
+        // Then
+        resultActions.andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void streamPartialContentWhenGetLatestDocumentTextWithRange() throws Exception {
+        // Given
+        String documentName = getRandomString();
+        byte[] contentBody = getRandomString().getBytes(StandardCharsets.UTF_8);
+        RevisionMetadata metadata = new RevisionMetadata(1, 3, 0, contentBody.length);
+        given(documentService.getLatestRevisionMetadata(documentName)).willReturn(metadata);
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(2);
+            out.write(contentBody, (int) (long) invocation.getArgument(3), (int) (long) invocation.getArgument(4));
+            return null;
+        }).when(documentService).writeContentBody(eq(documentName), eq(metadata), any(), anyLong(), anyLong());
+
+        // When
+        MvcResult mvcResult = mockMvc.perform(get(getLatestDocumentTextURLTemplate, documentName)
+                .header(HttpHeaders.RANGE, "bytes=3-8"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        ResultActions resultActions = mockMvc.perform(asyncDispatch(mvcResult));
+
+        // Then
+        resultActions.andExpect(status().isPartialContent());
+        resultActions.andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 3-8/" + contentBody.length));
+        resultActions.andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 6));
+        resultActions.andExpect(header().string(HttpHeaders.ETAG, "\"3\""));
+        resultActions.andExpect(content().bytes(Arrays.copyOfRange(contentBody, 3, 9)));
+    }
+
+    @Test
+    void returnRangeNotSatisfiableWhenGetLatestDocumentTextWithRangeOutOfBody() throws Exception {
+        // Given
+        String documentName = getRandomString();
+        given(documentService.getLatestRevisionMetadata(documentName)).willReturn(new RevisionMetadata(1, 1, 0, 10));
+
+        // When
+        ResultActions resultActions = mockMvc.perform(get(getLatestDocumentTextURLTemplate, documentName)
+                .header(HttpHeaders.RANGE, "bytes=10-"));
+
+        // Then
+        resultActions.andExpect(status().isRequestedRangeNotSatisfiable());
+        resultActions.andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */10"));
+    }
+
+    @Test
+    void returnLatestDocumentsWithMissingNamesMarkedWhenGetLatestDocuments() throws Exception {
+        // Given
+        String documentName = getRandomString();
+        String missingDocumentName = getRandomString();
+        Content content = getAnonymousContent();
+        Map<String, Content> expected = new LinkedHashMap<>();
+        expected.put(documentName, content);
+        expected.put(missingDocumentName, null);
+        given(documentService.getLatestDocuments(Set.of(documentName, missingDocumentName))).willReturn(expected);
+
+        // When
+        ResultActions resultActions = mockMvc.perform(post(getLatestDocumentsURLTemplate)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[\"" + documentName + "\",\"" + missingDocumentName + "\",\"" + documentName + "\"]"));
+
+        // Then
+        resultActions.andExpect(status().isOk());
+        resultActions.andExpect(jsonPath("$['" + documentName + "'].contentBody").value(content.getContentBody()));
+        resultActions.andExpect(jsonPath("$['" + missingDocumentName + "']").value(nullValue()));
+    }
+
+    @Test
+    void returnBadRequestWhenGetLatestDocumentsWithTooManyNames() throws Exception {
+        // Given
+        given(documentService.getLatestDocuments(any())).willThrow(new IllegalArgumentException());
+
+        // When
+        ResultActions resultActions = mockMvc.perform(post(getLatestDocumentsURLTemplate)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[\"" + getRandomString() + "\"]"));
+
+        // Then
+        resultActions.andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void returnNotFoundWhenGetLatestDocumentTextWithNotExistDocument() throws Exception {
+        // Given
+        String documentName = getRandomString();
+        given(documentService.getLatestRevisionMetadata(documentName)).willReturn(null);
+
+        // When
+        ResultActions resultActions = mockMvc.perform(get(getLatestDocumentTextURLTemplate, documentName));
+
+        // Then
+        resultActions.andExpect(status().isNotFound());
+    }
+
     @Test
     void returnNotFoundWhenGetHistoryOfDocumentDocumentWithNotExistDocument() throws Exception {
         // Given
@@ -0,0 +1,153 @@
+package com.github.freenamu.backend.controller;
+
+import com.github.freenamu.backend.service.DocumentExporter;
+import com.github.freenamu.backend.service.DocumentImporter;
+import com.github.freenamu.backend.vo.ImportResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static com.github.freenamu.backend.TestUtil.getRandomString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"freenamu.import.enabled=true", "freenamu.export.enabled=true"})
+@AutoConfigureMockMvc
+class DumpControllerTest {
+    private final String importURLTemplate = "/import";
+    private final String exportURLTemplate = "/export";
+    private final String exportRangesURLTemplate = "/export/ranges";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DumpController dumpController;
+
+    @MockBean
+    private DocumentImporter documentImporter;
+
+    @MockBean
+    private DocumentExporter documentExporter;
+
+    @Test
+    void returnImportResultWhenImportDocuments() throws Exception {
+        // Given
+        given(documentImporter.importDocuments(any())).willReturn(new ImportResult(2, 10, 1_000_000_000L));
+
+        // When
+        ResultActions resultActions = mockMvc.perform(post(importURLTemplate).content("{}"));
+
+        // Then
+        resultActions.andExpect(status().isOk());
+        resultActions.andExpect(jsonPath("documentCount").value(2));
+        resultActions.andExpect(jsonPath("revisionCount").value(10));
+        resultActions.andExpect(jsonPath("revisionsPerSecond").value(10.0));
+    }
+
+    @Test
+    void returnBadRequestWhenImportMalformedDump() throws Exception {
+        // Given
+        given(documentImporter.importDocuments(any())).willThrow(new IllegalArgumentException());
+
+        // When
+        ResultActions resultActions = mockMvc.perform(post(importURLTemplate).content("{"));
+
+        // Then
+        resultActions.andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void returnForbiddenWhenImportIsDisabled() throws Exception {
+        // Given
+        ReflectionTestUtils.setField(dumpController, "importEnabled", false);
+
+        // When
+        ResultActions resultActions;
+        try {
+            resultActions = mockMvc.perform(post(importURLTemplate).content("{}"));
+        } finally {
+            ReflectionTestUtils.setField(dumpController, "importEnabled", true);
+        }
+
+        // Then
+        resultActions.andExpect(status().isForbidden());
+        verify(documentImporter, never()).importDocuments(any());
+    }
+
+    @Test
+    void streamGzippedDumpWhenExportDocuments() throws Exception {
+        // Given
+        String line = "{\"documentName\":\"" + getRandomString() + "\"}\n";
+        given(documentExporter.exportDocuments(eq("a"), eq("b"), any())).willAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(2);
+            out.write(line.getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        });
+
+        // When
+        MvcResult mvcResult = mockMvc.perform(get(exportURLTemplate).param("after", "a").param("until", "b"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        ResultActions resultActions = mockMvc.perform(asyncDispatch(mvcResult));
+
+        // Then
+        resultActions.andExpect(status().isOk());
+        resultActions.andExpect(header().string(HttpHeaders.CONTENT_TYPE, "application/gzip"));
+        byte[] body = resultActions.andReturn().getResponse().getContentAsByteArray();
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            assertEquals(line, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void returnRangeBoundariesWhenGetExportRanges() throws Exception {
+        // Given
+        given(documentExporter.getRangeBoundaries(3)).willReturn(List.of("a", "b"));
+
+        // When
+        ResultActions resultActions = mockMvc.perform(get(exportRangesURLTemplate).param("count", "3"));
+
+        // Then
+        resultActions.andExpect(status().isOk());
+        resultActions.andExpect(jsonPath("$[0]").value("a"));
+        resultActions.andExpect(jsonPath("$[1]").value("b"));
+    }
+
+    @Test
+    void returnBadRequestWhenGetExportRangesWithCountOutOfRange() throws Exception {
+        // Given
+        given(documentExporter.getRangeBoundaries(0)).willThrow(new IllegalArgumentException());
+
+        // When
+        ResultActions resultActions = mockMvc.perform(get(exportRangesURLTemplate).param("count", "0"));
+
+        // Then
+        resultActions.andExpect(status().isBadRequest());
+    }
+}
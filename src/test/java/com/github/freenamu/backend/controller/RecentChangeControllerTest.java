@@ -0,0 +1,112 @@
+package com.github.freenamu.backend.controller;
+
+import com.github.freenamu.backend.feed.RecentChangeFeed;
+import com.github.freenamu.backend.runner.RecentChangeFeedRunner;
+import com.github.freenamu.backend.vo.RecentChange;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static com.github.freenamu.backend.TestUtil.getRandomString;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class RecentChangeControllerTest {
+    private final String getRecentChangesURLTemplate = "/recent-changes";
+    private final String streamRecentChangesURLTemplate = "/recent-changes/stream";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private RecentChangeFeed recentChangeFeed;
+
+    @MockBean
+    private RecentChangeFeedRunner recentChangeFeedRunner;
+
+    @Test
+    void returnRecentChangesWhenGetRecentChanges() throws Exception {
+        // Given
+        String documentName = getRandomString();
+        RecentChange change = new RecentChange(documentName, 2, "127.0.0.1", 10, LocalDateTime.now()).withId(42);
+        given(recentChangeFeed.getRecentChanges(41, 10)).willReturn(List.of(change));
+
+        // When
+        ResultActions resultActions = mockMvc.perform(get(getRecentChangesURLTemplate)
+                .param("after", "41")
+                .param("limit", "10"));
+
+        // Then
+        resultActions.andExpect(status().isOk());
+        resultActions.andExpect(jsonPath("[0].id").value(42));
+        resultActions.andExpect(jsonPath("[0].documentName").value(documentName));
+        resultActions.andExpect(jsonPath("[0].revisionIndex").value(2));
+        resultActions.andExpect(jsonPath("[0].contributor").value("127.0.0.1"));
+        resultActions.andExpect(jsonPath("[0].length").value(10));
+    }
+
+    @Test
+    void returnBadRequestWhenGetRecentChangesWithLimitOutOfRange() throws Exception {
+        // When
+        ResultActions resultActions = mockMvc.perform(get(getRecentChangesURLTemplate)
+                .param("limit", "0"));
+
+        // Then
+        resultActions.andExpect(status().isBadRequest());
+        verify(recentChangeFeed, never()).getRecentChanges(anyLong(), anyInt());
+    }
+
+    @Test
+    void pushChangesWhenStreamRecentChanges() throws Exception {
+        // Given
+        String documentName = getRandomString();
+        SseEmitter emitter = new SseEmitter();
+        given(recentChangeFeed.subscribe(41L)).willReturn(emitter);
+
+        // When
+        MvcResult mvcResult = mockMvc.perform(get(streamRecentChangesURLTemplate)
+                        .header("Last-Event-ID", "41"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        emitter.send(SseEmitter.event().id("42").name("change").data(new RecentChange(documentName, 2, "127.0.0.1", 10, LocalDateTime.now())));
+
+        // Then
+        String body = mvcResult.getResponse().getContentAsString(StandardCharsets.UTF_8);
+        assertThat(body, containsString("id:42"));
+        assertThat(body, containsString("event:change"));
+        assertThat(body, containsString(documentName));
+    }
+
+    @Test
+    void returnServiceUnavailableWhenStreamRecentChangesWithTooManySubscribers() throws Exception {
+        // Given
+        given(recentChangeFeed.subscribe(null)).willReturn(null);
+
+        // When
+        ResultActions resultActions = mockMvc.perform(get(streamRecentChangesURLTemplate));
+
+        // Then
+        resultActions.andExpect(status().isServiceUnavailable());
+    }
+}
@@ -0,0 +1,111 @@
+package com.github.freenamu.backend.controller;
+
+import com.github.freenamu.backend.search.DocumentNameIndex;
+import com.github.freenamu.backend.search.SearchIndex;
+import com.github.freenamu.backend.vo.SearchResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.List;
+
+import static com.github.freenamu.backend.TestUtil.getRandomString;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class SearchControllerTest {
+    private final String searchURLTemplate = "/search";
+    private final String findDocumentNamesURLTemplate = "/document-names";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private SearchIndex searchIndex;
+
+    @MockBean
+    private DocumentNameIndex documentNameIndex;
+
+    @Test
+    void returnRankedHitsWhenSearch() throws Exception {
+        // Given
+        String query = getRandomString();
+        String documentName = getRandomString();
+        SearchResult expected = new SearchResult(21);
+        expected.getHits().add(new SearchResult.Hit(documentName, 3, 1.5f));
+        given(searchIndex.search(query, 20, 10)).willReturn(expected);
+
+        // When
+        ResultActions resultActions = mockMvc.perform(get(searchURLTemplate)
+                .param("q", query)
+                .param("page", "2")
+                .param("limit", "10"));
+
+        // Then
+        resultActions.andExpect(status().isOk());
+        resultActions.andExpect(jsonPath("totalHits").value(21));
+        resultActions.andExpect(jsonPath("hits[0].documentName").value(documentName));
+        resultActions.andExpect(jsonPath("hits[0].revisionIndex").value(3));
+    }
+
+    @Test
+    void returnBadRequestWhenSearchWithBlankQuery() throws Exception {
+        // When
+        ResultActions resultActions = mockMvc.perform(get(searchURLTemplate).param("q", " "));
+
+        // Then
+        resultActions.andExpect(status().isBadRequest());
+        verify(searchIndex, never()).search(anyString(), anyInt(), anyInt());
+    }
+
+    @Test
+    void returnBadRequestWhenSearchBeyondMaxOffset() throws Exception {
+        // When
+        ResultActions resultActions = mockMvc.perform(get(searchURLTemplate)
+                .param("q", getRandomString())
+                .param("page", "11")
+                .param("limit", "100"));
+
+        // Then
+        resultActions.andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void returnDocumentNamesWhenFindDocumentNamesByPrefix() throws Exception {
+        // Given
+        given(documentNameIndex.findByPrefix("한", 5)).willReturn(List.of("한국", "한글"));
+
+        // When
+        ResultActions resultActions = mockMvc.perform(get(findDocumentNamesURLTemplate)
+                .param("prefix", "한")
+                .param("limit", "5"));
+
+        // Then
+        resultActions.andExpect(status().isOk());
+        resultActions.andExpect(jsonPath("$[0]").value("한국"));
+        resultActions.andExpect(jsonPath("$[1]").value("한글"));
+    }
+
+    @Test
+    void returnBadRequestWhenFindDocumentNamesWithLimitOutOfRange() throws Exception {
+        // When
+        ResultActions resultActions = mockMvc.perform(get(findDocumentNamesURLTemplate)
+                .param("prefix", "한")
+                .param("limit", "0"));
+
+        // Then
+        resultActions.andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,70 @@
+package com.github.freenamu.backend.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+public class ReplicaRoutingDataSourceTest {
+    @AfterEach
+    public void clearReadOnly() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    public void routeReadWriteConnectionsToPrimary() throws Exception {
+        // Given
+        DataSource primary = mockDataSource();
+        DataSource replica = mockDataSource();
+        ReplicaRoutingDataSource dataSource = new ReplicaRoutingDataSource(primary, List.of(replica));
+
+        // When
+        Connection connection = dataSource.getConnection();
+
+        // Then
+        assertSame(primary.getConnection(), connection);
+    }
+
+    @Test
+    public void routeReadOnlyConnectionsToReplicasInRoundRobin() throws Exception {
+        // Given
+        DataSource primary = mockDataSource();
+        List<DataSource> replicas = List.of(mockDataSource(), mockDataSource());
+        ReplicaRoutingDataSource dataSource = new ReplicaRoutingDataSource(primary, replicas);
+
+        // When
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        // Then
+        for (int i = 0; i < 4; i++) {
+            assertSame(replicas.get(i % 2).getConnection(), dataSource.getConnection());
+        }
+    }
+
+    @Test
+    public void routeReadOnlyConnectionsToPrimaryWithoutReplicas() throws Exception {
+        // Given
+        DataSource primary = mockDataSource();
+        ReplicaRoutingDataSource dataSource = new ReplicaRoutingDataSource(primary, List.of());
+
+        // When
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        // Then
+        assertSame(primary.getConnection(), dataSource.getConnection());
+    }
+
+    private DataSource mockDataSource() throws Exception {
+        DataSource dataSource = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        given(dataSource.getConnection()).willReturn(connection);
+        return dataSource;
+    }
+}
@@ -0,0 +1,146 @@
+package com.github.freenamu.backend.feed;
+
+import com.github.freenamu.backend.vo.RecentChange;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RecentChangeFeedTest {
+    @Test
+    void keepOnlyTheLatestChanges() {
+        // Given
+        RecentChangeFeed feed = new RecentChangeFeed(4, 10, 1000, 10);
+
+        // When
+        for (int i = 1; i <= 6; i++) {
+            feed.publish(getChange("document", i));
+        }
+
+        // Then
+        List<RecentChange> changes = feed.getRecentChanges(-1, 10);
+        assertEquals(List.of(6, 5, 4, 3), getRevisionIndexes(changes));
+        assertEquals(List.of(6, 5), getRevisionIndexes(feed.getRecentChanges(-1, 2)));
+        assertEquals(List.of(6), getRevisionIndexes(feed.getRecentChanges(changes.get(1).getId(), 10)));
+    }
+
+    @Test
+    void backfillBehindLiveChanges() {
+        // Given
+        RecentChangeFeed feed = new RecentChangeFeed(4, 10, 1000, 10);
+        feed.publish(getChange("document", 3));
+
+        // When
+        feed.backfill(List.of(getChange("document", 3), getChange("document", 2), getChange("document", 1)));
+
+        // Then
+        assertEquals(List.of(3, 2, 1), getRevisionIndexes(feed.getRecentChanges(-1, 10)));
+    }
+
+    @Test
+    void neverOverwriteLiveChangesWithBackfill() {
+        // Given
+        RecentChangeFeed feed = new RecentChangeFeed(4, 10, 1000, 10);
+        for (int i = 5; i <= 7; i++) {
+            feed.publish(getChange("document", i));
+        }
+
+        // When
+        feed.backfill(List.of(getChange("document", 4), getChange("document", 3), getChange("document", 2)));
+
+        // Then
+        assertEquals(List.of(7, 6, 5, 4), getRevisionIndexes(feed.getRecentChanges(-1, 10)));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void hideChangesBehindUnfilledSlot() {
+        // Given
+        RecentChangeFeed feed = new RecentChangeFeed(4, 10, 1000, 10);
+        feed.publish(getChange("document", 1));
+        AtomicLong nextId = (AtomicLong) ReflectionTestUtils.getField(feed, "nextId");
+        long reservedId = nextId.getAndIncrement();
+
+        // When
+        feed.publish(getChange("document", 3));
+
+        // Then
+        assertEquals(List.of(1), getRevisionIndexes(feed.getRecentChanges(-1, 10)));
+        AtomicReferenceArray<RecentChange> slots = (AtomicReferenceArray<RecentChange>) ReflectionTestUtils.getField(feed, "slots");
+        slots.set((int) (reservedId % 4), getChange("document", 2).withId(reservedId));
+        feed.publish(getChange("document", 4));
+        assertEquals(List.of(4, 3, 2, 1), getRevisionIndexes(feed.getRecentChanges(-1, 10)));
+    }
+
+    @Test
+    void rejectSubscribersOverLimit() {
+        // Given
+        RecentChangeFeed feed = new RecentChangeFeed(4, 2, 1000, 10);
+
+        // When
+        SseEmitter first = feed.subscribe(null);
+        SseEmitter second = feed.subscribe(null);
+        SseEmitter third = feed.subscribe(null);
+
+        // Then
+        assertNotNull(first);
+        assertNotNull(second);
+        assertNull(third);
+        assertEquals(2, feed.getSubscriberCount());
+    }
+
+    @Test
+    void dropSlowSubscriber() throws InterruptedException {
+        // Given
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        RecentChangeFeed feed = new RecentChangeFeed(4, 10, 1000, 1) {
+            @Override
+            SseEmitter createEmitter(long timeout) {
+                return new SseEmitter(timeout) {
+                    @Override
+                    public void send(SseEventBuilder builder) throws IOException {
+                        sending.countDown();
+                        try {
+                            release.await();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                };
+            }
+        };
+        feed.subscribe(null);
+        feed.publish(getChange("document", 1));
+        sending.await();
+
+        // When
+        feed.publish(getChange("document", 2));
+        feed.publish(getChange("document", 3));
+
+        // Then
+        assertEquals(0, feed.getSubscriberCount());
+        assertEquals(List.of(3, 2, 1), getRevisionIndexes(feed.getRecentChanges(-1, 10)));
+        release.countDown();
+        feed.close();
+    }
+
+    private static RecentChange getChange(String documentName, int revisionIndex) {
+        return new RecentChange(documentName, revisionIndex, "127.0.0.1", revisionIndex, LocalDateTime.now());
+    }
+
+    private static List<Integer> getRevisionIndexes(List<RecentChange> changes) {
+        return changes.stream().map(RecentChange::getRevisionIndex).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,86 @@
+package com.github.freenamu.backend.metrics;
+
+import com.github.freenamu.backend.service.DocumentService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.net.URI;
+
+import static com.github.freenamu.backend.TestUtil.getRandomString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.request;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:metrics;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+public class DocumentMetricsTest {
+    @Autowired
+    private DocumentService documentService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void recordDocumentOperations() {
+        // Given
+        String documentName = getRandomString();
+        double postCount = meterRegistry.get("document.body.size").summary().count();
+
+        // When
+        documentService.postDocument(documentName, getRandomString(100), getRandomString(), getRandomString());
+        documentService.getLatestDocument(documentName);
+        documentService.getLatestDocument(documentName);
+
+        // Then
+        assertEquals(postCount + 1, meterRegistry.get("document.body.size").summary().count());
+        assertTrue(meterRegistry.get("document.operations").tag("operation", "postDocument").tag("outcome", "success").timer().count() >= 1);
+        assertTrue(meterRegistry.get("document.operations").tag("operation", "getLatestDocument").tag("outcome", "success").timer().count() >= 2);
+        assertTrue(meterRegistry.get("cache.gets").tag("cache", "latestRevision").tag("result", "hit").functionCounter().count() >= 1);
+    }
+
+    @Test
+    public void recordQueryCountPerRequest() throws Exception {
+        // Given
+        String documentName = getRandomString();
+        documentService.postDocument(documentName, getRandomString(), getRandomString(), getRandomString());
+
+        // When
+        mockMvc.perform(get("/document/{documentName}/history", documentName));
+
+        // Then
+        assertTrue(meterRegistry.get("http.server.requests.queries").tag("uri", "/document/{documentName}/history").summary().totalAmount() >= 1);
+    }
+
+    @Test
+    public void countJdbcTemplateQueries() {
+        // Given
+        QueryCountDataSource.reset();
+
+        // When
+        jdbcTemplate.queryForObject("select count(*) from document", Long.class);
+
+        // Then
+        assertEquals(1, QueryCountDataSource.getCount());
+    }
+
+    @Test
+    public void recordUnknownMethodsUnderOneTag() throws Exception {
+        // When
+        mockMvc.perform(request("PROPFIND", URI.create("/document/" + getRandomString() + "/history")));
+
+        // Then
+        assertEquals(1, meterRegistry.get("http.server.requests.queries").tag("method", "OTHER").summaries().size());
+    }
+}
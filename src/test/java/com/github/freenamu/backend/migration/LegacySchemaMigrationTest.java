@@ -0,0 +1,57 @@
+package com.github.freenamu.backend.migration;
+
+import com.github.freenamu.backend.service.DocumentService;
+import com.github.freenamu.backend.vo.History;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.charset.StandardCharsets;
+
+import static com.github.freenamu.backend.TestUtil.getRandomString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:legacy-schema;DB_CLOSE_DELAY=-1")
+public class LegacySchemaMigrationTest {
+    @Autowired
+    private LegacySchemaMigration legacySchemaMigration;
+
+    @Autowired
+    private DocumentService documentService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void migrateRevisionsFromJoinTable() {
+        // Given
+        String documentName = getRandomString();
+        String firstBody = getRandomString(100);
+        String secondBody = getRandomString(100);
+        jdbcTemplate.execute("create table document_revisions (document_document_name varchar(255) not null, revisions_content_id bigint not null, revisions_order integer not null)");
+        jdbcTemplate.update("insert into document (document_name) values (?)", documentName);
+        insertLegacyRevision(documentName, -2, 1, secondBody);
+        insertLegacyRevision(documentName, -1, 0, firstBody);
+
+        // When
+        legacySchemaMigration.migrate();
+        legacySchemaMigration.migrate();
+
+        // Then
+        assertEquals(2, documentService.getLatestRevisionIndex(documentName));
+        assertEquals(firstBody, documentService.getDocumentByRevisionIndex(documentName, 1).getContentBody());
+        assertEquals(secondBody, documentService.getLatestDocument(documentName).getContentBody());
+        for (History.Row row : documentService.getHistoryOfDocument(documentName).getRows()) {
+            assertEquals(row.getRevisionIndex() == 1 ? firstBody.length() : secondBody.length(), row.getLength());
+        }
+        assertEquals(firstBody.getBytes(StandardCharsets.UTF_8).length, documentService.getRevisionMetadata(documentName, 1).getByteSize());
+        documentService.postDocument(documentName, getRandomString(100), getRandomString(), getRandomString());
+        assertEquals(3, documentService.getLatestRevisionIndex(documentName));
+    }
+
+    private void insertLegacyRevision(String documentName, long contentId, int order, String contentBody) {
+        jdbcTemplate.update("insert into content (content_id, contributor, content_body, comment) values (?, ?, ?, ?)", contentId, getRandomString(), contentBody, getRandomString());
+        jdbcTemplate.update("insert into document_revisions (document_document_name, revisions_content_id, revisions_order) values (?, ?, ?)", documentName, contentId, order);
+    }
+}
@@ -0,0 +1,60 @@
+package com.github.freenamu.backend.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class DocumentNameIndexTest {
+    @Test
+    public void findNamesByFoldedPrefix() {
+        // Given
+        DocumentNameIndex documentNameIndex = new DocumentNameIndex();
+
+        // When
+        documentNameIndex.load(Stream.of("한국", "한글", "하늘", "Spring Boot", "spring", "ＳＱＬ", "Élan"));
+
+        // Then
+        assertEquals(List.of("한국", "한글"), documentNameIndex.findByPrefix("한", 10));
+        assertEquals(List.of("하늘", "한국", "한글"), documentNameIndex.findByPrefix("하", 10));
+        assertEquals(List.of("spring", "Spring Boot"), documentNameIndex.findByPrefix("SPR", 10));
+        assertEquals(List.of("ＳＱＬ"), documentNameIndex.findByPrefix("sq", 10));
+        assertEquals(List.of("Élan"), documentNameIndex.findByPrefix("é", 10));
+        assertEquals(List.of("Élan"), documentNameIndex.findByPrefix("", 1));
+    }
+
+    @Test
+    public void mergeAddedNamesInOrder() {
+        // Given
+        DocumentNameIndex documentNameIndex = new DocumentNameIndex(3);
+        documentNameIndex.load(Stream.of("a1", "a3", "b1"));
+
+        // When
+        documentNameIndex.add("a2");
+        documentNameIndex.add("a4");
+        documentNameIndex.add("a3");
+
+        // Then
+        assertEquals(List.of("a1", "a2", "a3", "a4"), documentNameIndex.findByPrefix("a", 10));
+        assertEquals(List.of("a1", "a2"), documentNameIndex.findByPrefix("a", 2));
+        assertEquals(5, documentNameIndex.size());
+    }
+
+    @Test
+    public void keepAddedNamesAfterCompaction() {
+        // Given
+        DocumentNameIndex documentNameIndex = new DocumentNameIndex(2);
+        documentNameIndex.load(Stream.of("c"));
+
+        // When
+        documentNameIndex.add("b");
+        documentNameIndex.add("a");
+        documentNameIndex.add("d");
+
+        // Then
+        assertEquals(List.of("a", "b", "c", "d"), documentNameIndex.findByPrefix("", 10));
+        assertEquals(4, documentNameIndex.size());
+    }
+}
@@ -0,0 +1,76 @@
+package com.github.freenamu.backend.search;
+
+import com.github.freenamu.backend.vo.SearchResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class SearchIndexTest {
+    private SearchIndex searchIndex;
+
+    @BeforeEach
+    public void openIndex() throws IOException {
+        searchIndex = new SearchIndex("");
+    }
+
+    @AfterEach
+    public void closeIndex() throws IOException {
+        searchIndex.close();
+    }
+
+    @Test
+    public void rankTitleMatchesFirst() throws IOException {
+        // Given
+        searchIndex.update("대문", 1, "자유로운 위키 백과사전에 오신 것을 환영합니다.");
+        searchIndex.update("위키", 3, "위키는 누구나 편집할 수 있는 웹사이트입니다.");
+        searchIndex.update("Spring Boot", 2, "A framework for Java applications.");
+        searchIndex.commit();
+
+        // When
+        SearchResult result = searchIndex.search("위키", 0, 10);
+
+        // Then
+        assertEquals(2, result.getTotalHits());
+        assertEquals("위키", result.getHits().get(0).getDocumentName());
+        assertEquals(3, result.getHits().get(0).getRevisionIndex());
+        assertEquals("대문", result.getHits().get(1).getDocumentName());
+        assertEquals("Spring Boot", searchIndex.search("JAVA", 0, 10).getHits().get(0).getDocumentName());
+    }
+
+    @Test
+    public void replaceRevisionOfSameDocument() throws IOException {
+        // Given
+        searchIndex.update("대문", 1, "사과");
+        searchIndex.commit();
+
+        // When
+        searchIndex.update("대문", 2, "바나나");
+        searchIndex.commit();
+
+        // Then
+        assertEquals(0, searchIndex.search("사과", 0, 10).getTotalHits());
+        assertEquals(2, searchIndex.search("바나나", 0, 10).getHits().get(0).getRevisionIndex());
+    }
+
+    @Test
+    public void searchPageByPage() throws IOException {
+        // Given
+        for (int i = 0; i < 25; i++) {
+            searchIndex.update("문서" + i, 1, "공통 단어 " + i);
+        }
+        searchIndex.commit();
+
+        // When
+        SearchResult lastPage = searchIndex.search("공통", 20, 10);
+
+        // Then
+        assertEquals(25, lastPage.getTotalHits());
+        assertEquals(5, lastPage.getHits().size());
+        assertThrows(IllegalArgumentException.class, () -> searchIndex.search("공통", SearchIndex.MAX_OFFSET + 1, 10));
+    }
+}
@@ -0,0 +1,88 @@
+package com.github.freenamu.backend.search;
+
+import com.github.freenamu.backend.service.DocumentService;
+import com.github.freenamu.backend.vo.SearchResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+
+import static com.github.freenamu.backend.TestUtil.getRandomString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:search;DB_CLOSE_DELAY=-1",
+        "spring.jmx.enabled=true",
+        "management.endpoints.jmx.exposure.include=searchindex"})
+public class SearchIndexerTest {
+    @Autowired
+    private SearchIndexer searchIndexer;
+
+    @Autowired
+    private SearchIndex searchIndex;
+
+    @Autowired
+    private DocumentService documentService;
+
+    @Test
+    public void indexLatestRevisionAfterPostDocument() throws Exception {
+        // Given
+        String documentName = getRandomString();
+        String word = "second" + System.nanoTime();
+        documentService.postDocument(documentName, getRandomString(), getRandomString(), getRandomString());
+
+        // When
+        documentService.postDocument(documentName, word, getRandomString(), getRandomString());
+
+        // Then
+        SearchResult result = awaitHit(word);
+        assertEquals(documentName, result.getHits().get(0).getDocumentName());
+        assertEquals(2, result.getHits().get(0).getRevisionIndex());
+    }
+
+    @Test
+    public void rebuildIndexFromDatabase() throws Exception {
+        // Given
+        String documentName = getRandomString();
+        String word = "rebuilt" + System.nanoTime();
+        documentService.postDocument(documentName, word, getRandomString(), getRandomString());
+        awaitHit(word);
+        searchIndex.deleteAll();
+        searchIndex.commit();
+
+        // When
+        searchIndexer.requestRebuild();
+
+        // Then
+        assertEquals(documentName, awaitHit(word).getHits().get(0).getDocumentName());
+    }
+
+    @Test
+    public void rebuildIndexThroughJmxEndpoint() throws Exception {
+        // Given
+        String documentName = getRandomString();
+        String word = "endpoint" + System.nanoTime();
+        documentService.postDocument(documentName, word, getRandomString(), getRandomString());
+        awaitHit(word);
+        searchIndex.deleteAll();
+        searchIndex.commit();
+
+        // When
+        ManagementFactory.getPlatformMBeanServer().invoke(new ObjectName("org.springframework.boot:type=Endpoint,name=Searchindex"), "rebuild", new Object[0], new String[0]);
+
+        // Then
+        assertEquals(documentName, awaitHit(word).getHits().get(0).getDocumentName());
+    }
+
+    private SearchResult awaitHit(String word) throws IOException, InterruptedException {
+        SearchResult result = searchIndex.search(word, 0, 10);
+        for (int i = 0; i < 100 && result.getHits().isEmpty(); i++) {
+            Thread.sleep(50);
+            result = searchIndex.search(word, 0, 10);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,108 @@
+package com.github.freenamu.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.freenamu.backend.metrics.QueryCountDataSource;
+import com.github.freenamu.backend.repository.DocumentRepository;
+import com.github.freenamu.backend.vo.DumpRecord;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.github.freenamu.backend.TestUtil.getRandomString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:export;DB_CLOSE_DELAY=-1",
+        "freenamu.revision.keyframe-interval=4"})
+public class DocumentExporterTest {
+    @Autowired
+    private DocumentExporter documentExporter;
+
+    @Autowired
+    private DocumentService documentService;
+
+    @Autowired
+    private DocumentRepository documentRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    public void exportRevisionsOrderedByDocumentName() throws Exception {
+        // Given
+        String prefix = getRandomString();
+        List<String> expectedBodies = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            String contentBody = getRandomString(100);
+            for (int j = 0; j < 6; j++) {
+                contentBody = contentBody + getRandomString(5);
+                documentService.postDocument(prefix + i, contentBody, "edit " + j, getRandomString());
+                expectedBodies.add(contentBody);
+            }
+        }
+
+        // When
+        QueryCountDataSource.reset();
+        List<DumpRecord> records = export(prefix, prefix + "\uffff");
+
+        // Then
+        assertEquals(1, QueryCountDataSource.getCount());
+        assertEquals(18, records.size());
+        for (int i = 0; i < 18; i++) {
+            assertEquals(prefix + i / 6, records.get(i).getDocumentName());
+            assertEquals(expectedBodies.get(i), records.get(i).getContentBody());
+            assertEquals("edit " + i % 6, records.get(i).getComment());
+        }
+    }
+
+    @Test
+    public void exportDocumentsInRange() throws Exception {
+        // Given
+        String prefix = getRandomString();
+        for (int i = 0; i < 4; i++) {
+            documentService.postDocument(prefix + i, getRandomString(), getRandomString(), getRandomString());
+        }
+
+        // When
+        List<DumpRecord> records = export(prefix + 0, prefix + 2);
+
+        // Then
+        assertEquals(2, records.size());
+        assertEquals(prefix + 1, records.get(0).getDocumentName());
+        assertEquals(prefix + 2, records.get(1).getDocumentName());
+    }
+
+    @Test
+    public void splitDocumentsIntoRangesOfEqualSize() {
+        // Given
+        for (int i = 0; i < 8; i++) {
+            documentService.postDocument(getRandomString(), getRandomString(), getRandomString(), getRandomString());
+        }
+
+        List<String> documentNames = documentRepository.findDocumentNamesAfter("", PageRequest.of(0, Integer.MAX_VALUE));
+
+        // When
+        QueryCountDataSource.reset();
+        List<String> boundaries = documentExporter.getRangeBoundaries(4);
+
+        // Then
+        assertEquals(2, QueryCountDataSource.getCount());
+        assertEquals(3, boundaries.size());
+        for (int i = 1; i < 4; i++) {
+            assertEquals(documentNames.get(documentNames.size() * i / 4 - 1), boundaries.get(i - 1));
+        }
+    }
+
+    private List<DumpRecord> export(String after, String until) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        documentExporter.exportDocuments(after, until, out);
+        List<DumpRecord> records = new ArrayList<>();
+        objectMapper.readerFor(DumpRecord.class).readValues(out.toByteArray()).forEachRemaining(record -> records.add((DumpRecord) record));
+        return records;
+    }
+}
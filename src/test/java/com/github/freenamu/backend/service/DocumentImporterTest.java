@@ -0,0 +1,164 @@
+package com.github.freenamu.backend.service;
+
+import com.github.freenamu.backend.entity.Content;
+import com.github.freenamu.backend.vo.ImportResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.github.freenamu.backend.TestUtil.getRandomString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:import;DB_CLOSE_DELAY=-1",
+        "freenamu.import.chunk-size=3",
+        "freenamu.import.workers=2",
+        "freenamu.revision.keyframe-interval=4"})
+public class DocumentImporterTest {
+    @Autowired
+    private DocumentImporter documentImporter;
+
+    @Autowired
+    private DocumentService documentService;
+
+    @Test
+    public void importRevisionsOfManyDocuments() throws Exception {
+        // Given
+        List<String> documentNames = new ArrayList<>();
+        List<String> contentBodies = new ArrayList<>();
+        StringBuilder dump = new StringBuilder();
+        for (int i = 0; i < 5; i++) {
+            String documentName = getRandomString();
+            documentNames.add(documentName);
+            for (int j = 0; j < 4; j++) {
+                String contentBody = getRandomString();
+                contentBodies.add(contentBody);
+                dump.append(getRecord(documentName, contentBody, "edit " + j));
+            }
+        }
+
+        // When
+        ImportResult result = documentImporter.importDocuments(toInputStream(dump));
+
+        // Then
+        assertEquals(5, result.getDocumentCount());
+        assertEquals(20, result.getRevisionCount());
+        for (int i = 0; i < 5; i++) {
+            for (int j = 0; j < 4; j++) {
+                Content content = documentService.getDocumentByRevisionIndex(documentNames.get(i), j + 1);
+                assertEquals(contentBodies.get(i * 4 + j), content.getContentBody());
+                assertEquals("edit " + j, content.getComment());
+            }
+            assertEquals(4, documentService.getLatestRevisionIndex(documentNames.get(i)));
+        }
+    }
+
+    @Test
+    public void appendImportedRevisionsToExistingDocument() throws Exception {
+        // Given
+        String documentName = getRandomString();
+        documentService.postDocument(documentName, getRandomString(), getRandomString(), getRandomString());
+        String contentBody = getRandomString();
+
+        // When
+        documentImporter.importDocuments(toInputStream(getRecord(documentName, contentBody, "")));
+
+        // Then
+        assertEquals(2, documentService.getLatestRevisionIndex(documentName));
+        assertEquals(contentBody, documentService.getLatestDocument(documentName).getContentBody());
+    }
+
+    @Test
+    public void encodeAgainstRevisionSavedBetweenChunks() throws Exception {
+        // Given
+        String documentName = getRandomString();
+        String commonBody = getRandomString().repeat(10);
+        List<String> contentBodies = new ArrayList<>();
+        StringBuilder dump = new StringBuilder();
+        for (int i = 0; i < 4; i++) {
+            contentBodies.add(commonBody + getRandomString());
+            dump.append(getRecord(documentName, contentBodies.get(i), "edit " + i));
+        }
+        String postedBody = commonBody + getRandomString();
+        InputStream postAfterFirstChunk = new InputStream() {
+            private boolean posted;
+
+            @Override
+            public int read() throws IOException {
+                if (!posted) {
+                    posted = true;
+                    long deadline = System.currentTimeMillis() + 10000;
+                    Integer latestRevisionIndex;
+                    while (((latestRevisionIndex = documentService.getLatestRevisionIndex(documentName)) == null || latestRevisionIndex < 3)
+                            && System.currentTimeMillis() < deadline) {
+                        Thread.yield();
+                    }
+                    documentService.postDocument(documentName, postedBody, getRandomString(), getRandomString());
+                }
+                return -1;
+            }
+        };
+
+        // When
+        documentImporter.importDocuments(new SequenceInputStream(toInputStream(dump), postAfterFirstChunk));
+
+        // Then
+        assertEquals(5, documentService.getLatestRevisionIndex(documentName));
+        assertEquals(postedBody, documentService.getDocumentByRevisionIndex(documentName, 4).getContentBody());
+        assertEquals(contentBodies.get(3), documentService.getDocumentByRevisionIndex(documentName, 5).getContentBody());
+    }
+
+    @Test
+    public void importRecordWithoutComment() throws Exception {
+        // Given
+        String documentName = getRandomString();
+        String contentBody = getRandomString();
+        String record = "{\"documentName\":\"" + documentName + "\",\"contentBody\":\"" + contentBody + "\",\"contributor\":\"127.0.0.1\"}\n";
+
+        // When
+        documentImporter.importDocuments(toInputStream(record));
+
+        // Then
+        Content content = documentService.getLatestDocument(documentName);
+        assertEquals(contentBody, content.getContentBody());
+        assertEquals("", content.getComment());
+    }
+
+    @Test
+    public void throwIllegalArgumentExceptionWhenImportRecordWithoutContributor() {
+        // Given
+        InputStream dump = toInputStream("{\"documentName\":\"" + getRandomString() + "\",\"contentBody\":\"" + getRandomString() + "\"}\n");
+
+        // When
+        // Then
+        assertThrows(IllegalArgumentException.class, () -> documentImporter.importDocuments(dump));
+    }
+
+    @Test
+    public void throwIllegalArgumentExceptionWhenImportMalformedRecord() {
+        // Given
+        InputStream dump = toInputStream("{\"documentName\":\"" + getRandomString() + "\"}\n");
+
+        // When
+        // Then
+        assertThrows(IllegalArgumentException.class, () -> documentImporter.importDocuments(dump));
+    }
+
+    private String getRecord(String documentName, String contentBody, String comment) {
+        return "{\"documentName\":\"" + documentName + "\",\"contentBody\":\"" + contentBody
+                + "\",\"comment\":\"" + comment + "\",\"contributor\":\"127.0.0.1\"}\n";
+    }
+
+    private InputStream toInputStream(CharSequence dump) {
+        return new ByteArrayInputStream(dump.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
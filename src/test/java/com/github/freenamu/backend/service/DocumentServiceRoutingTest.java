@@ -0,0 +1,96 @@
+package com.github.freenamu.backend.service;
+
+import com.github.freenamu.backend.repository.ContentRepository;
+import com.github.freenamu.backend.repository.DocumentRepository;
+import com.github.freenamu.backend.vo.RevisionMetadata;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static com.github.freenamu.backend.TestUtil.getRandomString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:document-service-routing;DB_CLOSE_DELAY=-1")
+public class DocumentServiceRoutingTest {
+    @Autowired
+    private DocumentService documentService;
+
+    @SpyBean
+    private DocumentRepository documentRepository;
+
+    @SpyBean
+    private ContentRepository contentRepository;
+
+    @SpyBean
+    private RevisionStore revisionStore;
+
+    @Test
+    public void readLatestRevisionIndexOutsideReadOnlyTransaction() {
+        // Given
+        List<Boolean> readOnly = new ArrayList<>();
+        doAnswer(invocation -> {
+            readOnly.add(TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+            return Optional.empty();
+        }).when(documentRepository).findLatestRevisionIndex(anyString());
+
+        // When
+        Integer actual = documentService.getLatestRevisionIndex(getRandomString());
+
+        // Then
+        assertNull(actual);
+        assertEquals(List.of(false), readOnly);
+    }
+
+    @Test
+    public void readLatestRevisionMetadataOutsideReadOnlyTransaction() {
+        // Given
+        List<Boolean> readOnly = new ArrayList<>();
+        doAnswer(invocation -> {
+            readOnly.add(TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+            return Optional.empty();
+        }).when(contentRepository).findLatestRevisionMetadata(anyString());
+
+        // When
+        RevisionMetadata actual = documentService.getLatestRevisionMetadata(getRandomString());
+
+        // Then
+        assertNull(actual);
+        assertEquals(List.of(false), readOnly);
+    }
+
+    @Test
+    public void writeContentBodyFromPrimaryWhenReplicaHasNoRevision() throws IOException {
+        // Given
+        String documentName = getRandomString();
+        String contentBody = getRandomString(100);
+        documentService.postDocument(documentName, contentBody, getRandomString(), getRandomString());
+        RevisionMetadata metadata = documentService.getRevisionMetadata(documentName, 1);
+        List<Boolean> readOnly = new ArrayList<>();
+        doAnswer(invocation -> {
+            readOnly.add(TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+            return !TransactionSynchronizationManager.isCurrentTransactionReadOnly() && (boolean) invocation.callRealMethod();
+        }).when(revisionStore).writeContentBody(anyString(), any(), any(), anyLong(), anyLong());
+
+        // When
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        documentService.writeContentBody(documentName, metadata, out, 0, metadata.getByteSize());
+
+        // Then
+        assertEquals(contentBody, out.toString(StandardCharsets.UTF_8));
+        assertEquals(List.of(true, false), readOnly);
+    }
+}
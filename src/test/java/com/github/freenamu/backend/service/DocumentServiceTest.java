@@ -2,16 +2,23 @@ package com.github.freenamu.backend.service;
 
 import com.github.freenamu.backend.entity.Content;
 import com.github.freenamu.backend.entity.Document;
+import com.github.freenamu.backend.exception.EditConflictException;
+import com.github.freenamu.backend.metrics.QueryCountDataSource;
+import com.github.freenamu.backend.repository.ContentRepository;
 import com.github.freenamu.backend.repository.DocumentRepository;
+import com.github.freenamu.backend.util.TextDiff;
+import com.github.freenamu.backend.vo.Diff;
 import com.github.freenamu.backend.vo.History;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.EntityManager;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static com.github.freenamu.backend.TestUtil.*;
@@ -27,6 +34,12 @@ public class DocumentServiceTest {
     @Autowired
     private DocumentRepository documentRepository;
 
+    @Autowired
+    private ContentRepository contentRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
     @Test
     public void postDocumentOnce() {
         // Given
@@ -127,6 +140,53 @@ public class DocumentServiceTest {
         // Then
     }
 
+    @Test
+    public void postDocumentWithCurrentBaseRevision() {
+        // Given
+        String documentName = getRandomString();
+        documentService.postDocument(documentName, getRandomString(), getRandomString(), getRandomString(), 0);
+        String contentBody = getRandomString();
+        String comment = getRandomString();
+        String contributor = getRandomString();
+
+        // When
+        documentService.postDocument(documentName, contentBody, comment, contributor, 1);
+
+        // Then
+        Content actual = documentService.getLatestDocument(documentName);
+        assertEquals(2, actual.getRevisionIndex());
+        assertContentEquals(getExpectedContent(contentBody, comment, contributor), actual);
+    }
+
+    @Test
+    public void throwExceptionWhenPostDocumentWithStaleBaseRevision() {
+        // Given
+        String documentName = getRandomString();
+        documentService.postDocument(documentName, getRandomString(), getRandomString(), getRandomString());
+        documentService.postDocument(documentName, getRandomString(), getRandomString(), getRandomString());
+
+        // When
+        assertThrows(EditConflictException.class, () -> documentService.postDocument(documentName, getRandomString(), getRandomString(), getRandomString(), 1));
+
+        // Then
+        assertEquals(2, documentService.getLatestDocument(documentName).getRevisionIndex());
+    }
+
+    @Test
+    public void skipPostDocumentWithUnchangedBody() {
+        // Given
+        String documentName = getRandomString();
+        String contentBody = getRandomString();
+        documentService.postDocument(documentName, contentBody, getRandomString(), getRandomString());
+
+        // When
+        boolean saved = documentService.postDocument(documentName, contentBody, getRandomString(), getRandomString(), 1);
+
+        // Then
+        assertFalse(saved);
+        assertEquals(1, documentService.getLatestRevisionIndex(documentName));
+    }
+
     @Test
     public void getLatestDocument() {
         // Given
@@ -147,6 +207,26 @@ public class DocumentServiceTest {
         assertContentEquals(actual, expected);
     }
 
+    @Test
+    public void readLatestRevisionWithOneQuery() {
+        // Given
+        String documentName = getRandomString();
+        for (int i = 0; i < 100; i++) {
+            documentService.postDocument(documentName, getRandomString(), getRandomString(), getRandomString());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        // When
+        QueryCountDataSource.reset();
+        Optional<Content> actual = contentRepository.findLatestRevision(documentName);
+
+        // Then
+        assertEquals(1, QueryCountDataSource.getCount());
+        assertTrue(actual.isPresent());
+        assertEquals(100, actual.get().getRevisionIndex());
+    }
+
     @Test
     public void returnNullIfDocumentIsNotExistWhenGetLatestDocument() {
         // Given
@@ -159,6 +239,67 @@ public class DocumentServiceTest {
         assertNull(actual);
     }
 
+    @Test
+    public void getLatestRevisionIndex() {
+        // Given
+        String documentName = getRandomString();
+        for (int i = 0; i < 3; i++) {
+            documentService.postDocument(documentName, getRandomString(), getRandomString(), getRandomString());
+        }
+
+        // When
+        Integer actual = documentService.getLatestRevisionIndex(documentName);
+
+        // Then
+        assertEquals(3, actual);
+        assertNull(documentService.getLatestRevisionIndex(getRandomString()));
+    }
+
+    @Test
+    public void getLatestDocuments() {
+        // Given
+        List<String> documentNames = new ArrayList<>();
+        List<String> expectedBodies = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            String documentName = getRandomString();
+            documentNames.add(documentName);
+            for (int j = 0; j < 2; j++) {
+                String contentBody = getRandomString();
+                documentService.postDocument(documentName, contentBody, getRandomString(), getRandomString());
+                if (j == 1) {
+                    expectedBodies.add(contentBody);
+                }
+            }
+        }
+        documentService.getLatestDocument(documentNames.get(0));
+        String missingDocumentName = getRandomString();
+        documentNames.add(missingDocumentName);
+
+        // When
+        Map<String, Content> actual = documentService.getLatestDocuments(documentNames);
+
+        // Then
+        assertEquals(documentNames, new ArrayList<>(actual.keySet()));
+        for (int i = 0; i < 3; i++) {
+            assertEquals(2, actual.get(documentNames.get(i)).getRevisionIndex());
+            assertEquals(expectedBodies.get(i), actual.get(documentNames.get(i)).getContentBody());
+        }
+        assertNull(actual.get(missingDocumentName));
+    }
+
+    @Test
+    public void throwExceptionWhenGetLatestDocumentsWithTooManyNames() {
+        // Given
+        List<String> documentNames = new ArrayList<>();
+        for (int i = 0; i <= DocumentService.MAX_BATCH_SIZE; i++) {
+            documentNames.add(getRandomString());
+        }
+
+        // When
+        // Then
+        assertThrows(IllegalArgumentException.class, () -> documentService.getLatestDocuments(documentNames));
+    }
+
     @Test
     public void getDocumentByRevisionIndex() {
         // Given
@@ -217,6 +358,26 @@ public class DocumentServiceTest {
         assertNull(actual);
     }
 
+    @Test
+    public void getDiff() {
+        // Given
+        String documentName = getRandomString();
+        documentService.postDocument(documentName, "a\nb\nc\n", "", "");
+        documentService.postDocument(documentName, "a\nx\nc\n", "", "");
+
+        // When
+        Diff actual = documentService.getDiff(documentName, 1, 2, TextDiff.Unit.LINE);
+
+        // Then
+        assertEquals(4, actual.getEdits().size());
+        assertEquals(Diff.Type.DELETE, actual.getEdits().get(1).getType());
+        assertEquals("b\n", actual.getEdits().get(1).getText());
+        assertEquals(Diff.Type.INSERT, actual.getEdits().get(2).getType());
+        assertEquals("x\n", actual.getEdits().get(2).getText());
+        assertSame(actual, documentService.getDiff(documentName, 1, 2, TextDiff.Unit.LINE));
+        assertNull(documentService.getDiff(documentName, 1, 3, TextDiff.Unit.LINE));
+    }
+
     @Test
     public void getHistoryOfDocument() {
         // Given
@@ -244,6 +405,66 @@ public class DocumentServiceTest {
         assertHistoryEquals(expected, actual);
     }
 
+    @Test
+    public void storeLengthAndByteSizeWhenPostDocument() {
+        // Given
+        String documentName = getRandomString();
+        String contentBody = "free" + getRandomString(3) + "\uD83D\uDE00";
+
+        // When
+        documentService.postDocument(documentName, contentBody, getRandomString(), getRandomString());
+
+        // Then
+        Content actual = documentService.getLatestDocument(documentName);
+        assertEquals(9, actual.getLength());
+        assertEquals(4 + 3 * 3 + 4, actual.getByteSize());
+    }
+
+    @Test
+    public void getHistoryOfDocumentPageByPage() {
+        // Given
+        String documentName = getRandomString();
+        int size = 25;
+        int limit = 10;
+        for (int i = 0; i < size; i++) {
+            documentService.postDocument(documentName, getRandomString(), getRandomString(), getRandomString());
+        }
+
+        // When
+        List<Integer> actualRevisionIndexes = new ArrayList<>();
+        List<Integer> actualNextCursors = new ArrayList<>();
+        Integer before = null;
+        do {
+            History page = documentService.getHistoryOfDocument(documentName, before, limit);
+            for (Row row : page.getRows()) {
+                actualRevisionIndexes.add(row.getRevisionIndex());
+            }
+            before = page.getNextCursor();
+            actualNextCursors.add(before);
+        } while (before != null);
+
+        // Then
+        assertEquals(size, actualRevisionIndexes.size());
+        for (int i = 0; i < size; i++) {
+            assertEquals(size - i, actualRevisionIndexes.get(i));
+        }
+        assertEquals(List.of(16, 6), actualNextCursors.subList(0, 2));
+        assertNull(actualNextCursors.get(2));
+    }
+
+    @Test
+    public void throwExceptionWhenGetHistoryOfDocumentWithLimitOutOfRange() {
+        // Given
+        String documentName = getRandomString();
+        documentService.postDocument(documentName, getRandomString(), getRandomString(), getRandomString());
+
+        // When
+        assertThrows(IllegalArgumentException.class, () -> documentService.getHistoryOfDocument(documentName, null, 0));
+        assertThrows(IllegalArgumentException.class, () -> documentService.getHistoryOfDocument(documentName, null, DocumentService.MAX_HISTORY_LIMIT + 1));
+
+        // Then
+    }
+
     @Test
     public void returnNullIfDocumentIsNotExistWhenGetHistoryOfDocument() {
         // Given
@@ -0,0 +1,149 @@
+package com.github.freenamu.backend.service;
+
+import com.github.freenamu.backend.exception.EditConflictException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.github.freenamu.backend.TestUtil.getRandomString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:group-commit;DB_CLOSE_DELAY=-1",
+        "freenamu.write.group-commit.enabled=true",
+        "freenamu.write.group-commit.max-wait=50"})
+public class GroupCommitWriterTest {
+    @Autowired
+    private GroupCommitWriter groupCommitWriter;
+
+    @Autowired
+    private DocumentService documentService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    public void postConcurrentEdits() throws Exception {
+        // Given
+        List<String> documentNames = new ArrayList<>();
+        List<Runnable> edits = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            String documentName = getRandomString();
+            documentNames.add(documentName);
+            edits.add(() -> groupCommitWriter.postDocument(documentName, getRandomString(), "", "", null));
+        }
+
+        // When
+        List<Throwable> failures = postConcurrently(edits);
+
+        // Then
+        for (int i = 0; i < documentNames.size(); i++) {
+            assertNull(failures.get(i));
+            assertEquals(1, documentService.getLatestRevisionIndex(documentNames.get(i)));
+        }
+    }
+
+    @Test
+    public void failOnlyTheConflictingEdit() throws Exception {
+        // Given
+        String documentName = getRandomString();
+        String otherDocumentName = getRandomString();
+        groupCommitWriter.postDocument(documentName, getRandomString(), "", "", null);
+        Runnable edit = () -> groupCommitWriter.postDocument(documentName, getRandomString(), "", "", 1);
+
+        // When
+        List<Throwable> failures = postConcurrently(List.of(edit, edit,
+                () -> groupCommitWriter.postDocument(otherDocumentName, getRandomString(), "", "", null)));
+
+        // Then
+        assertEquals(1, failures.stream().filter(failure -> failure instanceof EditConflictException).count());
+        assertNull(failures.get(2));
+        assertEquals(2, documentService.getLatestRevisionIndex(documentName));
+        assertEquals(1, documentService.getLatestRevisionIndex(otherDocumentName));
+    }
+
+    @Test
+    public void failOnlyTheInvalidEdit() throws Exception {
+        // Given
+        String validDocumentName = getRandomString();
+        String invalidDocumentName = getRandomString();
+
+        // When
+        List<Throwable> failures = postConcurrently(List.of(
+                () -> groupCommitWriter.postDocument(validDocumentName, getRandomString(), "", "", null),
+                () -> groupCommitWriter.postDocument(invalidDocumentName, getRandomString(), getRandomString(256), "", null)));
+
+        // Then
+        assertNull(failures.get(0));
+        assertEquals(IllegalArgumentException.class, failures.get(1).getClass());
+        assertEquals(1, documentService.getLatestRevisionIndex(validDocumentName));
+        assertNull(documentService.getLatestRevisionIndex(invalidDocumentName));
+    }
+
+    @Test
+    public void returnWhetherEditWasSaved() {
+        // Given
+        String documentName = getRandomString();
+        String contentBody = getRandomString();
+
+        // When
+        boolean first = groupCommitWriter.postDocument(documentName, contentBody, "", "", null);
+        boolean second = groupCommitWriter.postDocument(documentName, contentBody, "", "", null);
+
+        // Then
+        assertTrue(first);
+        assertFalse(second);
+        assertEquals(1, documentService.getLatestRevisionIndex(documentName));
+    }
+
+    @Test
+    public void recordRetriedEditsOnce() throws Exception {
+        // Given
+        documentService.postDocument(getRandomString(), getRandomString(), "", "");
+        double postCount = meterRegistry.get("document.body.size").summary().count();
+        long successCount = meterRegistry.get("document.operations").tag("operation", "postDocument").tag("outcome", "success").timer().count();
+        List<Runnable> edits = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            String documentName = getRandomString();
+            edits.add(() -> groupCommitWriter.postDocument(documentName, getRandomString(), "", "", null));
+        }
+        edits.add(() -> groupCommitWriter.postDocument(getRandomString(), getRandomString(), getRandomString(256), "", null));
+
+        // When
+        postConcurrently(edits);
+
+        // Then
+        assertEquals(postCount + 4, meterRegistry.get("document.body.size").summary().count());
+        assertEquals(successCount + 4, meterRegistry.get("document.operations").tag("operation", "postDocument").tag("outcome", "success").timer().count());
+    }
+
+    private static List<Throwable> postConcurrently(List<Runnable> edits) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(edits.size());
+        List<Future<?>> futures = new ArrayList<>();
+        for (Runnable edit : edits) {
+            futures.add(executor.submit(edit));
+        }
+        List<Throwable> failures = new ArrayList<>();
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+                failures.add(null);
+            } catch (ExecutionException e) {
+                failures.add(e.getCause());
+            }
+        }
+        executor.shutdown();
+        return failures;
+    }
+}
@@ -0,0 +1,29 @@
+package com.github.freenamu.backend.service;
+
+import com.github.freenamu.backend.exception.WriteTimeoutException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static com.github.freenamu.backend.TestUtil.getRandomString;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:group-commit-timeout;DB_CLOSE_DELAY=-1",
+        "freenamu.write.group-commit.enabled=true",
+        "freenamu.write.group-commit.max-wait=1000",
+        "freenamu.write.group-commit.result-timeout=100"})
+public class GroupCommitWriterTimeoutTest {
+    @Autowired
+    private GroupCommitWriter groupCommitWriter;
+
+    @Test
+    public void throwWriteTimeoutExceptionWhenEditIsNotWrittenInTime() {
+        // Given
+        String documentName = getRandomString();
+
+        // When
+        // Then
+        assertThrows(WriteTimeoutException.class, () -> groupCommitWriter.postDocument(documentName, getRandomString(), "", "", null));
+    }
+}
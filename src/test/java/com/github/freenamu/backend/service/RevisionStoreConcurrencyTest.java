@@ -0,0 +1,60 @@
+package com.github.freenamu.backend.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.github.freenamu.backend.TestUtil.getRandomString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:revision-store-concurrency;DB_CLOSE_DELAY=-1")
+public class RevisionStoreConcurrencyTest {
+    private static final int THREAD_COUNT = 8;
+
+    @Autowired
+    private DocumentService documentService;
+
+    @Test
+    public void shareBlobOfBodyPostedConcurrently() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT);
+        try {
+            for (int round = 0; round < 20; round++) {
+                // Given
+                String contentBody = getRandomString(1000);
+                List<String> documentNames = new ArrayList<>();
+                for (int i = 0; i < THREAD_COUNT; i++) {
+                    documentNames.add(getRandomString());
+                }
+                CountDownLatch start = new CountDownLatch(1);
+
+                // When
+                List<Future<?>> futures = new ArrayList<>();
+                for (String documentName : documentNames) {
+                    futures.add(executor.submit(() -> {
+                        start.await();
+                        documentService.postDocument(documentName, contentBody, "", "");
+                        return null;
+                    }));
+                }
+                start.countDown();
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+
+                // Then
+                for (String documentName : documentNames) {
+                    assertEquals(contentBody, documentService.getLatestDocument(documentName).getContentBody());
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
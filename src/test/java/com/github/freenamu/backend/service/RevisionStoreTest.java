@@ -0,0 +1,253 @@
+package com.github.freenamu.backend.service;
+
+import com.github.freenamu.backend.entity.Content;
+import com.github.freenamu.backend.entity.Document;
+import com.github.freenamu.backend.repository.ContentRepository;
+import com.github.freenamu.backend.repository.DocumentRepository;
+import com.github.freenamu.backend.util.CompressedText;
+import com.github.freenamu.backend.util.TextCodec;
+import com.github.freenamu.backend.vo.RevisionMetadata;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.github.freenamu.backend.TestUtil.getRandomString;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = "freenamu.revision.keyframe-interval=4")
+@Transactional
+public class RevisionStoreTest {
+    @Autowired
+    private DocumentService documentService;
+
+    @Autowired
+    private RevisionStore revisionStore;
+
+    @Autowired
+    private ContentRepository contentRepository;
+
+    @Autowired
+    private DocumentRepository documentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    public void storeDeltasBetweenKeyframes() {
+        // Given
+        String documentName = getRandomString();
+        List<String> expectedBodies = postEdits(documentName, 10);
+
+        // When
+        entityManager.flush();
+        entityManager.clear();
+
+        // Then
+        List<Content> revisions = contentRepository.findRevisionRange(documentName, 1, 10);
+        for (int i = 0; i < 10; i++) {
+            assertEquals(i % 4, revisions.get(i).getDeltaDepth());
+        }
+        entityManager.clear();
+        for (int i = 0; i < 10; i++) {
+            assertEquals(expectedBodies.get(i), documentService.getDocumentByRevisionIndex(documentName, i + 1).getContentBody());
+        }
+        assertEquals(expectedBodies.get(9), documentService.getLatestDocument(documentName).getContentBody());
+    }
+
+    @Test
+    public void repackFullRevisionsIntoDeltas() {
+        // Given
+        String documentName = getRandomString();
+        ReflectionTestUtils.setField(revisionStore, "keyframeInterval", 1);
+        List<String> expectedBodies;
+        try {
+            expectedBodies = postEdits(documentName, 10);
+        } finally {
+            ReflectionTestUtils.setField(revisionStore, "keyframeInterval", 4);
+        }
+
+        // When
+        documentService.repackDocument(documentName);
+        entityManager.clear();
+
+        // Then
+        List<Content> revisions = contentRepository.findRevisionRange(documentName, 1, 10);
+        for (int i = 0; i < 10; i++) {
+            assertEquals(i % 4, revisions.get(i).getDeltaDepth());
+        }
+        entityManager.clear();
+        for (int i = 0; i < 10; i++) {
+            assertEquals(expectedBodies.get(i), documentService.getDocumentByRevisionIndex(documentName, i + 1).getContentBody());
+        }
+    }
+
+    @Test
+    public void bumpDocumentVersionOnRepack() {
+        // Given
+        String documentName = getRandomString();
+        postEdits(documentName, 3);
+        entityManager.flush();
+        entityManager.clear();
+        Long version = jdbcTemplate.queryForObject("select version from document where document_name = ?", Long.class, documentName);
+
+        // When
+        documentService.repackDocument(documentName);
+        entityManager.flush();
+
+        // Then
+        assertEquals(version + 1, jdbcTemplate.queryForObject("select version from document where document_name = ?", Long.class, documentName));
+    }
+
+    @Test
+    public void readRevisionsWrittenWithDifferentCodecs() {
+        // Given
+        String documentName = getRandomString();
+        String compressedBody = "[[" + getRandomString(10) + "]]".repeat(100);
+        String uncompressedBody = compressedBody + getRandomString(10);
+        documentService.postDocument(documentName, compressedBody, getRandomString(), getRandomString());
+        ReflectionTestUtils.setField(revisionStore, "codec", TextCodec.NONE);
+        try {
+            documentService.postDocument(documentName, uncompressedBody, getRandomString(), getRandomString());
+        } finally {
+            ReflectionTestUtils.setField(revisionStore, "codec", TextCodec.DEFLATE);
+        }
+
+        // When
+        entityManager.flush();
+        entityManager.clear();
+
+        // Then
+        Content compressed = documentService.getDocumentByRevisionIndex(documentName, 1);
+        assertEquals(TextCodec.DEFLATE, compressed.getPayloadCodec());
+        assertEquals(compressedBody, compressed.getContentBody());
+        Content uncompressed = documentService.getDocumentByRevisionIndex(documentName, 2);
+        assertEquals(TextCodec.NONE, uncompressed.getPayloadCodec());
+        assertEquals(uncompressedBody, uncompressed.getContentBody());
+    }
+
+    @Test
+    public void writeContentBodyRangesWithoutMaterializing() throws IOException {
+        // Given
+        String documentName = getRandomString();
+        List<String> expectedBodies = postEdits(documentName, 2);
+        ReflectionTestUtils.setField(revisionStore, "codec", TextCodec.NONE);
+        try {
+            expectedBodies.add(expectedBodies.get(1) + getRandomString(10));
+            documentService.postDocument(documentName, expectedBodies.get(2), getRandomString(), getRandomString());
+        } finally {
+            ReflectionTestUtils.setField(revisionStore, "codec", TextCodec.DEFLATE);
+        }
+
+        // When
+        entityManager.flush();
+        entityManager.clear();
+
+        // Then
+        for (int i = 0; i < 3; i++) {
+            byte[] expected = expectedBodies.get(i).getBytes(StandardCharsets.UTF_8);
+            RevisionMetadata metadata = documentService.getRevisionMetadata(documentName, i + 1);
+            assertEquals(expected.length, metadata.getByteSize());
+            assertArrayEquals(expected, writeContentBody(documentName, metadata, 0, expected.length));
+            assertArrayEquals(Arrays.copyOfRange(expected, 100, 250), writeContentBody(documentName, metadata, 100, 150));
+        }
+    }
+
+    @Test
+    public void shareOneBlobBetweenIdenticalBodies() throws IOException {
+        // Given
+        String documentName = getRandomString();
+        String otherDocumentName = getRandomString();
+        String original = getRandomString(1000);
+        documentService.postDocument(documentName, original, getRandomString(), getRandomString());
+        documentService.postDocument(documentName, "", getRandomString(), getRandomString());
+
+        // When
+        documentService.postDocument(documentName, original, getRandomString(), getRandomString());
+        documentService.postDocument(otherDocumentName, original, getRandomString(), getRandomString());
+        entityManager.flush();
+        entityManager.clear();
+
+        // Then
+        List<Content> revisions = contentRepository.findRevisionRange(documentName, 1, 3);
+        Content copy = contentRepository.findRevision(otherDocumentName, 1).orElseThrow();
+        assertEquals(revisions.get(0).getBlob().getHash(), revisions.get(2).getBlob().getHash());
+        assertEquals(revisions.get(0).getBlob().getHash(), copy.getBlob().getHash());
+        assertEquals(1L, entityManager.createQuery("select count(b) from ContentBlob b where b.hash = :hash")
+                .setParameter("hash", copy.getBodyHash()).getSingleResult());
+        entityManager.clear();
+        assertEquals(original, documentService.getDocumentByRevisionIndex(documentName, 3).getContentBody());
+        RevisionMetadata metadata = documentService.getRevisionMetadata(otherDocumentName, 1);
+        assertArrayEquals(original.getBytes(StandardCharsets.UTF_8), writeContentBody(otherDocumentName, metadata, 0, metadata.getByteSize()));
+    }
+
+    @Test
+    public void insertBatchedBlobsStoredMeanwhile() {
+        // Given
+        String documentName = getRandomString();
+        documentService.postDocument(documentName, getRandomString(), getRandomString(), getRandomString());
+        Document document = documentRepository.findById(documentName).orElseThrow();
+        List<String> expectedBodies = new ArrayList<>();
+        List<Content> contents = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Content content = new Content();
+            content.setContentBody(i == 2 ? expectedBodies.get(0) : getRandomString(1000));
+            content.setContributor(getRandomString());
+            content.setComment(getRandomString());
+            document.addContent(content);
+            expectedBodies.add(content.getContentBody());
+            contents.add(content);
+        }
+        RevisionStore.BlobBatch blobBatch = revisionStore.findBlobs(contents);
+        for (Content content : contents) {
+            revisionStore.encode(content, null, blobBatch);
+        }
+        jdbcTemplate.update("insert into content_blob (hash, payload) values (?, ?)", contents.get(1).getBodyHash(),
+                CompressedText.encode(expectedBodies.get(1), TextCodec.NONE).getBytes());
+
+        // When
+        revisionStore.insertBlobs(blobBatch);
+        contentRepository.saveAll(contents);
+        entityManager.flush();
+        entityManager.clear();
+
+        // Then
+        for (int i = 0; i < 3; i++) {
+            assertEquals(expectedBodies.get(i), documentService.getDocumentByRevisionIndex(documentName, i + 2).getContentBody());
+        }
+        assertEquals(2, jdbcTemplate.queryForObject("select count(*) from content_blob where hash in (?, ?)", Integer.class,
+                contents.get(0).getBodyHash(), contents.get(1).getBodyHash()));
+    }
+
+    private byte[] writeContentBody(String documentName, RevisionMetadata metadata, long offset, long length) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        documentService.writeContentBody(documentName, metadata, out, offset, length);
+        return out.toByteArray();
+    }
+
+    private List<String> postEdits(String documentName, int count) {
+        List<String> bodies = new ArrayList<>();
+        String contentBody = getRandomString(1000);
+        for (int i = 0; i < count; i++) {
+            int position = (int) (Math.random() * contentBody.length());
+            contentBody = contentBody.substring(0, position) + getRandomString(5) + contentBody.substring(position);
+            documentService.postDocument(documentName, contentBody, getRandomString(), getRandomString());
+            bodies.add(contentBody);
+        }
+        return bodies;
+    }
+}
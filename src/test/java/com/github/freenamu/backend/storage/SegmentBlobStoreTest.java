@@ -0,0 +1,151 @@
+package com.github.freenamu.backend.storage;
+
+import com.github.freenamu.backend.service.DocumentService;
+import com.github.freenamu.backend.util.CompressedText;
+import com.github.freenamu.backend.util.TextCodec;
+import com.github.freenamu.backend.util.TextHash;
+import com.github.freenamu.backend.vo.RevisionMetadata;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static com.github.freenamu.backend.TestUtil.getRandomString;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:segment-blob-store;DB_CLOSE_DELAY=-1",
+        "freenamu.revision.store=segment",
+        "freenamu.revision.segment.path=target/segment-blob-store-test",
+        "freenamu.revision.segment.max-size=4096"
+})
+@Transactional
+public class SegmentBlobStoreTest {
+    @Autowired
+    private DocumentService documentService;
+
+    @Autowired
+    private SegmentBlobStore segmentBlobStore;
+
+    @Autowired
+    private SegmentCompactor segmentCompactor;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    public void readRevisionsFromSegments() throws IOException {
+        // Given
+        String documentName = getRandomString();
+        List<String> expectedBodies = postEdits(documentName, 10);
+
+        // When
+        entityManager.flush();
+        entityManager.clear();
+
+        // Then
+        assertTrue(segmentBlobStore.getSegmentStore().getSealedSegmentIds().size() > 0);
+        assertRevisions(documentName, expectedBodies);
+    }
+
+    @Test
+    public void keepOnlyLocationInDatabase() {
+        // Given
+        String documentName = getRandomString();
+        String contentBody = postEdits(documentName, 1).get(0);
+
+        // When
+        entityManager.flush();
+
+        // Then
+        Object[] row = (Object[]) entityManager.createNativeQuery("select payload, segment from content_blob where hash = ?")
+                .setParameter(1, TextHash.sha256(contentBody))
+                .getSingleResult();
+        assertNull(row[0]);
+        assertNotNull(row[1]);
+    }
+
+    @Test
+    public void compactSegmentsWithDeadRecords() throws IOException {
+        // Given
+        String documentName = getRandomString();
+        appendDeadRecords(10);
+        List<String> expectedBodies = postEdits(documentName, 3);
+        appendDeadRecords(10);
+        entityManager.flush();
+        entityManager.clear();
+        long totalSize = segmentBlobStore.getSegmentStore().getTotalSize();
+
+        // When
+        int compacted = segmentCompactor.compact();
+        entityManager.clear();
+
+        // Then
+        assertTrue(compacted > 0);
+        assertTrue(segmentBlobStore.getSegmentStore().getTotalSize() < totalSize);
+        assertRevisions(documentName, expectedBodies);
+    }
+
+    @Test
+    public void keepSegmentsWithUncommittedRecords() throws Exception {
+        // Given
+        String documentName = getRandomString();
+        String contentBody = postEdits(documentName, 1).get(0);
+        appendDeadRecords(10);
+        entityManager.flush();
+        int segment = ((Number) entityManager.createNativeQuery("select segment from content_blob where hash = ?")
+                .setParameter(1, TextHash.sha256(contentBody))
+                .getSingleResult()).intValue();
+
+        // When
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            executor.submit(segmentCompactor::compact).get();
+        } finally {
+            executor.shutdown();
+        }
+
+        // Then
+        assertTrue(segmentBlobStore.getSegmentStore().getSealedSegmentIds().contains(segment));
+    }
+
+    private void assertRevisions(String documentName, List<String> expectedBodies) throws IOException {
+        for (int i = 0; i < expectedBodies.size(); i++) {
+            assertEquals(expectedBodies.get(i), documentService.getDocumentByRevisionIndex(documentName, i + 1).getContentBody());
+            RevisionMetadata metadata = documentService.getRevisionMetadata(documentName, i + 1);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            documentService.writeContentBody(documentName, metadata, out, 0, metadata.getByteSize());
+            assertArrayEquals(expectedBodies.get(i).getBytes(StandardCharsets.UTF_8), out.toByteArray());
+        }
+    }
+
+    private void appendDeadRecords(int count) {
+        for (int i = 0; i < count; i++) {
+            String contentBody = getRandomString(1000);
+            segmentBlobStore.create(TextHash.sha256(contentBody), CompressedText.encode(contentBody, TextCodec.NONE));
+        }
+    }
+
+    private List<String> postEdits(String documentName, int count) {
+        List<String> bodies = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String contentBody = getRandomString(1000);
+            documentService.postDocument(documentName, contentBody, getRandomString(), getRandomString());
+            bodies.add(contentBody);
+        }
+        return bodies;
+    }
+}
@@ -0,0 +1,99 @@
+package com.github.freenamu.backend.storage;
+
+import com.github.freenamu.backend.util.TextHash;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static com.github.freenamu.backend.TestUtil.getRandomString;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class SegmentStoreTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    public void readRecordsFromActiveAndSealedSegments() throws IOException {
+        // Given
+        byte[][] payloads = new byte[10][];
+        SegmentStore.Location[] locations = new SegmentStore.Location[10];
+
+        // When
+        try (SegmentStore segmentStore = new SegmentStore(directory, 1024)) {
+            for (int i = 0; i < 10; i++) {
+                payloads[i] = getRandomString(300).getBytes(StandardCharsets.UTF_8);
+                locations[i] = segmentStore.append(hash(payloads[i]), payloads[i]);
+            }
+            segmentStore.force();
+
+            // Then
+            assertFalse(segmentStore.getSealedSegmentIds().isEmpty());
+            for (int i = 0; i < 10; i++) {
+                assertArrayEquals(payloads[i], segmentStore.readBytes(locations[i], hash(payloads[i])));
+            }
+        }
+        try (SegmentStore segmentStore = new SegmentStore(directory, 1024)) {
+            for (int i = 0; i < 10; i++) {
+                assertArrayEquals(payloads[i], segmentStore.readBytes(locations[i], hash(payloads[i])));
+            }
+        }
+    }
+
+    @Test
+    public void truncateTornRecordOnOpen() throws IOException {
+        // Given
+        byte[] payload = getRandomString(100).getBytes(StandardCharsets.UTF_8);
+        SegmentStore.Location location;
+        long size;
+        try (SegmentStore segmentStore = new SegmentStore(directory, 1 << 20)) {
+            location = segmentStore.append(hash(payload), payload);
+            size = segmentStore.getTotalSize();
+            segmentStore.append(hash(payload), payload);
+        }
+        Path segment = directory.resolve("segment-00000001.dat");
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 10);
+        }
+
+        // When
+        try (SegmentStore segmentStore = new SegmentStore(directory, 1 << 20)) {
+
+            // Then
+            assertEquals(size, Files.size(segment));
+            assertArrayEquals(payload, segmentStore.readBytes(location, hash(payload)));
+            SegmentStore.Location appended = segmentStore.append(hash(payload), payload);
+            assertEquals(size + location.getOffset(), appended.getOffset());
+        }
+    }
+
+    @Test
+    public void detectCorruptedRecord() throws IOException {
+        // Given
+        byte[] payload = getRandomString(100).getBytes(StandardCharsets.UTF_8);
+        try (SegmentStore segmentStore = new SegmentStore(directory, 1 << 20)) {
+            SegmentStore.Location location = segmentStore.append(hash(payload), payload);
+
+            // When
+            try (FileChannel channel = FileChannel.open(directory.resolve("segment-00000001.dat"), StandardOpenOption.WRITE)) {
+                channel.write(ByteBuffer.wrap(new byte[]{(byte) ~payload[0]}), location.getOffset());
+            }
+
+            // Then
+            assertThrows(IllegalStateException.class, () -> segmentStore.readBytes(location, hash(payload)));
+        }
+    }
+
+    private static String hash(byte[] payload) {
+        return TextHash.sha256(new String(payload, StandardCharsets.UTF_8));
+    }
+}
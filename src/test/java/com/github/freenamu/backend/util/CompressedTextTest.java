@@ -0,0 +1,73 @@
+package com.github.freenamu.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static com.github.freenamu.backend.TestUtil.getRandomString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompressedTextTest {
+    @Test
+    void decodeEncodedTextWithEveryCodec() {
+        // Given
+        String text = ("== " + getRandomString(5) + " ==\n[[" + getRandomString(5) + "]]\n").repeat(100);
+
+        for (TextCodec codec : TextCodec.values()) {
+            // When
+            CompressedText compressedText = CompressedText.encode(text, codec);
+
+            // Then
+            assertEquals(codec, compressedText.getCodec());
+            assertEquals(text, CompressedText.wrap(compressedText.getBytes()).decode());
+        }
+    }
+
+    @Test
+    void decodeTextWrappedInBuffer() {
+        // Given
+        String text = ("== " + getRandomString(5) + " ==\n[[" + getRandomString(5) + "]]\n").repeat(100);
+
+        for (TextCodec codec : TextCodec.values()) {
+            byte[] bytes = CompressedText.encode(text, codec).getBytes();
+            ByteBuffer buffer = ByteBuffer.allocate(bytes.length + 2).position(1);
+            buffer.duplicate().put(bytes);
+
+            // When
+            CompressedText compressedText = CompressedText.wrap(buffer.limit(bytes.length + 1));
+
+            // Then
+            assertEquals(codec, compressedText.getCodec());
+            assertEquals(text, compressedText.decode());
+            assertEquals(CompressedText.wrap(bytes), compressedText);
+        }
+    }
+
+    @Test
+    void keepShortTextUncompressed() {
+        // Given
+        String text = getRandomString(10);
+
+        // When
+        CompressedText compressedText = CompressedText.encode(text, TextCodec.DEFLATE);
+
+        // Then
+        assertEquals(TextCodec.NONE, compressedText.getCodec());
+        assertEquals(text, compressedText.decode());
+    }
+
+    @Test
+    void keepIncompressibleTextUncompressed() {
+        // Given
+        String text = getRandomString(1000);
+
+        // When
+        CompressedText compressedText = CompressedText.encode(text, TextCodec.DEFLATE);
+
+        // Then
+        assertTrue(compressedText.getBytes().length <= text.getBytes(StandardCharsets.UTF_8).length + 1);
+        assertEquals(text, compressedText.decode());
+    }
+}
@@ -0,0 +1,112 @@
+package com.github.freenamu.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SingleFlightTest {
+    @Test
+    void shareOneLoadBetweenConcurrentCallers() throws Exception {
+        // Given
+        SingleFlight<String, String> singleFlight = new SingleFlight<>(10000);
+        AtomicInteger loadCount = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // When
+        List<Future<String>> futures = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            futures.add(executor.submit(() -> singleFlight.load("key", () -> {
+                loadCount.incrementAndGet();
+                await(release);
+                return "value";
+            })));
+        }
+        while (singleFlight.getInFlightCount() == 0) {
+            Thread.onSpinWait();
+        }
+        Thread.sleep(100);
+        release.countDown();
+
+        // Then
+        for (Future<String> future : futures) {
+            assertEquals("value", future.get());
+        }
+        executor.shutdown();
+        assertEquals(1, loadCount.get());
+        assertEquals(7, singleFlight.getSharedLoadCount());
+        assertEquals(0, singleFlight.getInFlightCount());
+    }
+
+    @Test
+    void shareTheExceptionOfTheLoad() throws Exception {
+        // Given
+        SingleFlight<String, String> singleFlight = new SingleFlight<>(10000);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        // When
+        Future<String> leader = executor.submit(() -> singleFlight.load("key", () -> {
+            await(release);
+            throw new IllegalArgumentException("failed");
+        }));
+        while (singleFlight.getInFlightCount() == 0) {
+            Thread.onSpinWait();
+        }
+        Future<String> follower = executor.submit(() -> singleFlight.load("key", () -> "unexpected"));
+        Thread.sleep(100);
+        release.countDown();
+
+        // Then
+        ExecutionException leaderFailure = assertThrows(ExecutionException.class, leader::get);
+        ExecutionException followerFailure = assertThrows(ExecutionException.class, follower::get);
+        executor.shutdown();
+        assertEquals(IllegalArgumentException.class, leaderFailure.getCause().getClass());
+        assertEquals(IllegalArgumentException.class, followerFailure.getCause().getClass());
+    }
+
+    @Test
+    void loadAloneAfterTimeout() throws Exception {
+        // Given
+        SingleFlight<String, String> singleFlight = new SingleFlight<>(50);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(1);
+        Future<String> leader = executor.submit(() -> singleFlight.load("key", () -> {
+            await(release);
+            return "slow";
+        }));
+        while (singleFlight.getInFlightCount() == 0) {
+            Thread.onSpinWait();
+        }
+
+        // When
+        String actual = singleFlight.load("key", () -> "fast");
+
+        // Then
+        release.countDown();
+        assertEquals("fast", actual);
+        assertEquals("slow", leader.get());
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.SECONDS));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
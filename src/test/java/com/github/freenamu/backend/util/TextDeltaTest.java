@@ -0,0 +1,73 @@
+package com.github.freenamu.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import static com.github.freenamu.backend.TestUtil.getRandomString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TextDeltaTest {
+    @Test
+    void applyEncodedDeltaOfLocalEdit() {
+        // Given
+        String prefix = getRandomString(1000);
+        String suffix = getRandomString(1000);
+        String from = prefix + getRandomString(10) + suffix;
+        String to = prefix + getRandomString(20) + suffix;
+
+        // When
+        String delta = TextDelta.encode(from, to);
+
+        // Then
+        assertEquals(to, TextDelta.apply(from, delta));
+        assertEquals("1000:1000:".length() + 20, delta.length());
+    }
+
+    @Test
+    void applyEncodedDeltaOfOverlappingAffixes() {
+        // Given
+        String from = "aaaa";
+        String to = "aaaaaa";
+
+        // When
+        String delta = TextDelta.encode(from, to);
+
+        // Then
+        assertEquals(to, TextDelta.apply(from, delta));
+    }
+
+    @Test
+    void applyEncodedDeltaOfUnrelatedTexts() {
+        // Given
+        String from = getRandomString(100);
+        String to = getRandomString(50);
+
+        // When
+        String delta = TextDelta.encode(from, to);
+
+        // Then
+        assertEquals(to, TextDelta.apply(from, delta));
+        assertEquals("", TextDelta.apply(from, TextDelta.encode(from, "")));
+        assertEquals(from, TextDelta.apply("", TextDelta.encode("", from)));
+    }
+
+    @Test
+    void keepSurrogatePairsOutOfAffixes() {
+        // Given
+        String[][] edits = {
+                {"x\uD83D\uDE00y", "x\uD83D\uDE01y"},
+                {"\uD83D\uDE00", "\uD83D\uDE01"},
+                {"a\uD840\uDC00b\uD840\uDC01", "a\uD840\uDC00b\uD841\uDC01"},
+                {"\uD83D\uDE00\uD83D\uDE00", "\uD83D\uDE00\uD83C\uDE00\uD83D\uDE00"}
+        };
+
+        for (String[] edit : edits) {
+            // When
+            String delta = TextDelta.encode(edit[0], edit[1]);
+            String stored = CompressedText.encode(delta, TextCodec.NONE).decode();
+
+            // Then
+            assertEquals(delta, stored);
+            assertEquals(edit[1], TextDelta.apply(edit[0], stored));
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.github.freenamu.backend.util;
+
+import com.github.freenamu.backend.vo.Diff;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.github.freenamu.backend.TestUtil.getRandomString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TextDiffTest {
+    @Test
+    void diffLinesWithContext() {
+        // Given
+        StringBuilder from = new StringBuilder();
+        StringBuilder to = new StringBuilder();
+        for (int i = 0; i < 20; i++) {
+            from.append("line ").append(i).append('\n');
+            to.append(i == 10 ? "changed\n" : "line " + i + "\n");
+        }
+        to.append("appended\n");
+
+        // When
+        Diff diff = new Diff(1, 2);
+        new TextDiff(TextDiff.Unit.LINE, 1000000, 1000000).diff(from.toString(), to.toString(), diff);
+
+        // Then
+        assertFalse(diff.isTruncated());
+        assertEquals("SKIP:7|EQUAL:line 7\nline 8\nline 9\n|DELETE:line 10\n|INSERT:changed\n"
+                + "|EQUAL:line 11\nline 12\nline 13\n|SKIP:3|EQUAL:line 17\nline 18\nline 19\n|INSERT:appended\n", format(diff));
+    }
+
+    @Test
+    void keepContextAfterLeadingInsert() {
+        // Given
+        StringBuilder from = new StringBuilder();
+        for (int i = 0; i < 10; i++) {
+            from.append("line ").append(i).append('\n');
+        }
+        String to = "inserted\n" + from;
+
+        // When
+        Diff diff = new Diff(1, 2);
+        new TextDiff(TextDiff.Unit.LINE, 1000000, 1000000).diff(from.toString(), to, diff);
+
+        // Then
+        assertEquals("INSERT:inserted\n|EQUAL:line 0\nline 1\nline 2\n|SKIP:7", format(diff));
+    }
+
+    @Test
+    void diffWords() {
+        // Given
+        String from = "the quick brown fox";
+        String to = "the slow brown dog";
+
+        // When
+        Diff diff = new Diff(1, 2);
+        new TextDiff(TextDiff.Unit.WORD, 1000000, 1000000).diff(from, to, diff);
+
+        // Then
+        assertEquals("EQUAL:the |DELETE:quick|INSERT:slow|EQUAL: brown |DELETE:fox|INSERT:dog", format(diff));
+    }
+
+    @Test
+    void reconstructBothTextsFromRandomEdits() {
+        for (int round = 0; round < 20; round++) {
+            // Given
+            String from = getRandomWords(200);
+            String to = getRandomWords(200);
+
+            // When
+            TextDiff textDiff = new TextDiff(TextDiff.Unit.WORD, Long.MAX_VALUE, Integer.MAX_VALUE);
+            Diff diff = new Diff(1, 2);
+            textDiff.diff(from, to, diff);
+
+            // Then
+            assertEquals(from, reconstruct(diff, Diff.Type.DELETE, textDiff.tokenize(from)));
+            assertEquals(to, reconstruct(diff, Diff.Type.INSERT, textDiff.tokenize(from)));
+        }
+    }
+
+    @Test
+    void fallBackToReplacementWhenCostIsExhausted() {
+        // Given
+        String from = "a\nb\nc\nd\n";
+        String to = "a\nx\nc\ny\n";
+
+        // When
+        Diff diff = new Diff(1, 2);
+        new TextDiff(TextDiff.Unit.LINE, 0, 1000000).diff(from, to, diff);
+
+        // Then
+        assertEquals("EQUAL:a\n|DELETE:b\nc\nd\n|INSERT:x\nc\ny\n", format(diff));
+    }
+
+    @Test
+    void truncateLongOutput() {
+        // Given
+        String from = "";
+        String to = getRandomString(1000);
+
+        // When
+        Diff diff = new Diff(1, 2);
+        new TextDiff(TextDiff.Unit.LINE, 1000000, 100).diff(from, to, diff);
+
+        // Then
+        assertTrue(diff.isTruncated());
+        assertEquals(1, diff.getEdits().size());
+        assertEquals(to.substring(0, 100), diff.getEdits().get(0).getText());
+    }
+
+    private static String getRandomWords(int count) {
+        StringBuilder result = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            result.append((char) ('a' + (int) (Math.random() * 4))).append(Math.random() < 0.2 ? '\n' : ' ');
+        }
+        return result.toString();
+    }
+
+    private static String reconstruct(Diff diff, Diff.Type changed, List<String> fromTokens) {
+        StringBuilder result = new StringBuilder();
+        StringBuilder from = new StringBuilder();
+        for (Diff.Edit edit : diff.getEdits()) {
+            if (edit.getType() == Diff.Type.SKIP) {
+                int index = 0;
+                for (int length = 0; length < from.length(); index++) {
+                    length += fromTokens.get(index).length();
+                }
+                String skipped = String.join("", fromTokens.subList(index, index + edit.getSkipped()));
+                result.append(skipped);
+                from.append(skipped);
+            } else if (edit.getType() != Diff.Type.INSERT) {
+                from.append(edit.getText());
+            }
+            if (edit.getType() == Diff.Type.EQUAL || edit.getType() == changed) {
+                result.append(edit.getText());
+            }
+        }
+        return result.toString();
+    }
+
+    private static String format(Diff diff) {
+        StringBuilder result = new StringBuilder();
+        for (Diff.Edit edit : diff.getEdits()) {
+            if (result.length() > 0) {
+                result.append('|');
+            }
+            result.append(edit.getType()).append(':').append(edit.getType() == Diff.Type.SKIP ? edit.getSkipped() : edit.getText());
+        }
+        return result.toString();
+    }
+}